@@ -0,0 +1,65 @@
+package com.naammm.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latencies (in microseconds) for one endpoint and prints percentiles.
+ * Samples go into a growable primitive array under a lock; contention is negligible
+ * next to the HTTP calls being measured.
+ */
+final class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[4096];
+    private int count;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long micros) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = micros;
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    /** 503s from the LLM bulkhead are counted apart from real errors. */
+    void rejected() {
+        rejected.increment();
+    }
+
+    static String header() {
+        return String.format(Locale.ROOT, "%-22s %8s %8s %8s %10s %10s %10s %10s",
+                "endpoint", "ok", "errors", "503", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    synchronized String summary() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "%-22s %8d %8d %8d %10.1f %10.1f %10.1f %10.1f",
+                name, count, errors.sum(), rejected.sum(),
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                maxMicros.get() / 1000.0);
+    }
+
+    /** Nearest-rank percentile, in milliseconds. */
+    static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.naammm.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all in {@code --name=value} form.
+ */
+record LoadTestOptions(
+        String baseUrl,
+        String slug,
+        int rps,
+        Duration duration,
+        Duration warmup,
+        double chatShare,
+        boolean stream,
+        boolean uniqueQuestions,
+        Duration requestTimeout) {
+
+    static final String USAGE = """
+            Usage: java -jar LoadTest.jar --slug=<portfolio-slug> [options]
+              --base-url=http://localhost:8081   service or gateway URL
+              --rps=20                           target arrival rate (requests/second, open loop)
+              --duration=60s                     measured run length
+              --warmup=10s                       unmeasured ramp before the run
+              --chat-share=0.5                   share of requests sent to chat, the rest to the portfolio page
+              --stream=false                     use the SSE chat endpoint and also report time to first byte
+              --unique-questions=false           make every question unique to bypass the answer cache
+              --request-timeout=120s
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        String slug = values.get("slug");
+        if (slug == null || slug.isBlank()) {
+            throw new IllegalArgumentException("--slug is required");
+        }
+        return new LoadTestOptions(
+                stripTrailingSlash(values.getOrDefault("base-url", "http://localhost:8081")),
+                slug,
+                Integer.parseInt(values.getOrDefault("rps", "20")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Double.parseDouble(values.getOrDefault("chat-share", "0.5")),
+                Boolean.parseBoolean(values.getOrDefault("stream", "false")),
+                Boolean.parseBoolean(values.getOrDefault("unique-questions", "false")),
+                duration(values.getOrDefault("request-timeout", "120s")));
+    }
+
+    /** Accepts 500ms, 30s, 5m. */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Bad duration: " + value);
+        };
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,187 @@
+package com.naammm.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the public chat and portfolio endpoints at a fixed arrival rate and reports
+ * latency percentiles per endpoint.
+ *
+ * Open loop: requests are started on schedule whether or not earlier ones have finished,
+ * and latency is measured from the scheduled start, so a stalled server shows up as
+ * high percentiles instead of silently lowering the request rate.
+ *
+ * Run the service with the {@code loadtest} profile to replace Gemini with its fake model.
+ */
+public final class LoadTestRunner {
+
+    private static final List<String> QUESTIONS = List.of(
+            "Tell me about yourself",
+            "What are your main skills?",
+            "What projects have you built?",
+            "How can I contact you?",
+            "Where are you based?",
+            "What technologies do you use most?",
+            "What is your biggest achievement?",
+            "What do you do for fun?");
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final LatencyRecorder portfolio = new LatencyRecorder("GET portfolio");
+    private final LatencyRecorder chat;
+    private final LatencyRecorder chatFirstByte = new LatencyRecorder("chat first byte");
+    private final AtomicLong sequence = new AtomicLong();
+
+    private LoadTestRunner(LoadTestOptions options) {
+        this.options = options;
+        this.chat = new LatencyRecorder(options.stream() ? "POST chat/stream" : "POST chat");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTestRunner(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf(Locale.ROOT, "Target %d rps for %ds (+%ds warm-up) against %s, slug '%s', chat share %.0f%%%n",
+                options.rps(), options.duration().toSeconds(), options.warmup().toSeconds(),
+                options.baseUrl(), options.slug(), options.chatShare() * 100);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rps();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        long sent = 0;
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end; scheduled = start + (++sent) * intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = scheduled;
+                boolean measured = scheduled >= measureFrom;
+                requests.submit(() -> send(intendedStart, measured));
+            }
+            System.out.println("All requests scheduled, waiting for in-flight responses...");
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println();
+        System.out.println(LatencyRecorder.header());
+        System.out.println(portfolio.summary());
+        System.out.println(chat.summary());
+        if (options.stream()) {
+            System.out.println(chatFirstByte.summary());
+        }
+        System.out.printf(Locale.ROOT, "%nSent %d requests in %.1fs, including warm-up and drain%n", sent, seconds);
+    }
+
+    private void send(long intendedStart, boolean measured) {
+        boolean toChat = ThreadLocalRandom.current().nextDouble() < options.chatShare();
+        LatencyRecorder recorder = toChat ? chat : portfolio;
+        try {
+            if (toChat && options.stream()) {
+                sendStreamingChat(intendedStart, measured);
+                return;
+            }
+            HttpResponse<Void> response = client.send(toChat ? chatRequest(false) : portfolioRequest(),
+                    HttpResponse.BodyHandlers.discarding());
+            record(recorder, response.statusCode(), intendedStart, measured);
+        } catch (IOException e) {
+            if (measured) {
+                recorder.error();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendStreamingChat(long intendedStart, boolean measured) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(chatRequest(true), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (body.read() >= 0 && measured && response.statusCode() == 200) {
+                chatFirstByte.record(micros(intendedStart));
+            }
+            body.transferTo(OutputStreamSink.INSTANCE);
+        }
+        record(chat, response.statusCode(), intendedStart, measured);
+    }
+
+    private void record(LatencyRecorder recorder, int status, long intendedStart, boolean measured) {
+        if (!measured) {
+            return;
+        }
+        if (status == 503) {
+            recorder.rejected();
+        } else if (status >= 400) {
+            recorder.error();
+        } else {
+            recorder.record(micros(intendedStart));
+        }
+    }
+
+    private HttpRequest portfolioRequest() {
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + "/api/v1/public/portfolio/" + options.slug()))
+                .timeout(options.requestTimeout())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest chatRequest(boolean stream) {
+        String question = QUESTIONS.get(ThreadLocalRandom.current().nextInt(QUESTIONS.size()));
+        if (options.uniqueQuestions()) {
+            question = question + " #" + sequence.incrementAndGet();
+        }
+        String path = "/api/v1/public/chat/" + options.slug() + (stream ? "/stream" : "");
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(options.requestTimeout())
+                .header("Content-Type", "application/json")
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"" + question.replace("\"", "\\\"") + "\"}"))
+                .build();
+    }
+
+    private static long micros(long intendedStart) {
+        return (System.nanoTime() - intendedStart) / 1000;
+    }
+
+    /** Discards the rest of a streamed body. */
+    private static final class OutputStreamSink extends java.io.OutputStream {
+        static final OutputStreamSink INSTANCE = new OutputStreamSink();
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
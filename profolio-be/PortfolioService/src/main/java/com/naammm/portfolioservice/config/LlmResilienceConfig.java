@@ -0,0 +1,57 @@
+package com.naammm.portfolioservice.config;
+
+import com.naammm.portfolioservice.exception.LlmCapacityException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class LlmResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * Opens when too many recent model calls failed or were slow; while open, callers get
+     * CallNotPermittedException immediately instead of waiting for the provider to time out.
+     * Our own bulkhead rejections are not the provider's fault and are ignored.
+     */
+    @Bean
+    public CircuitBreaker chatModelCircuitBreaker(
+            CircuitBreakerRegistry registry,
+            @Value("${llm.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${llm.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${llm.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${llm.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${llm.circuit-breaker.slow-call-duration:15s}") Duration slowCallDuration,
+            @Value("${llm.circuit-breaker.wait-in-open-state:30s}") Duration waitInOpenState) {
+        CircuitBreaker circuitBreaker = registry.circuitBreaker("chatModel", CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(LlmCapacityException.class)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Chat model circuit breaker: {}", event.getStateTransition()));
+        return circuitBreaker;
+    }
+}
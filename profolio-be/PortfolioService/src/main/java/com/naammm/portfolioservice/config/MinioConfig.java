@@ -0,0 +1,54 @@
+package com.naammm.portfolioservice.config;
+
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class MinioConfig {
+
+    @Bean
+    @Primary
+    public MinioClient minioClient(
+            @Value("${minio.endpoint}") String endpoint,
+            @Value("${minio.accessKey}") String accessKey,
+            @Value("${minio.secretKey}") String secretKey) {
+        return MinioClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
+
+    /**
+     * Signs presigned URLs for the browser. The signature covers the host, so it is built
+     * against the public URL; the region is fixed so signing never calls the server.
+     */
+    @Bean
+    public MinioClient minioPresignClient(
+            @Value("${minio.endpoint}") String endpoint,
+            @Value("${minio.publicUrl:}") String publicUrl,
+            @Value("${minio.region:us-east-1}") String region,
+            @Value("${minio.accessKey}") String accessKey,
+            @Value("${minio.secretKey}") String secretKey) {
+        return MinioClient.builder()
+                .endpoint(publicUrl != null && !publicUrl.isBlank() ? publicUrl : endpoint)
+                .region(region)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
+
+    /** Used for multipart uploads, where parts are sent concurrently. */
+    @Bean
+    public MinioAsyncClient minioAsyncClient(
+            @Value("${minio.endpoint}") String endpoint,
+            @Value("${minio.accessKey}") String accessKey,
+            @Value("${minio.secretKey}") String secretKey) {
+        return MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
+}
@@ -1,14 +1,23 @@
 package com.naammm.portfolioservice.controller;
 
-import com.naammm.portfolioservice.service.PortfolioService;
+import com.naammm.portfolioservice.dto.CvIngestionStatus;
+import com.naammm.portfolioservice.service.CvIngestionJob;
+import com.naammm.portfolioservice.service.CvIngestionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.Map;
 import java.util.UUID;
 
@@ -17,13 +26,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CVController {
 
-    private final PortfolioService portfolioService;
+    private final CvIngestionService cvIngestionService;
+
+    @Value("${cv.ingestion.events.poll-interval:1s}")
+    private Duration eventPollInterval;
 
     /**
      * POST /api/v1/cv/ingest
      * 
-     * Handles CV Upload and Text Extraction.
-     * Extracts user ID from JWT Token.
+     * Handles CV Upload. Extracts user ID from JWT Token.
+     * Returns 202 with the job id right away; parsing and AI extraction run in the
+     * background and are followed through GET /api/v1/cv/jobs/{jobId}.
      */
     @PostMapping("/ingest")
     public ResponseEntity<?> uploadCV(
@@ -32,11 +45,15 @@ public class CVController {
     ) {
         try {
             UUID userId = UUID.fromString(jwt.getSubject());
-            portfolioService.ingestCV(userId, file);
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "CV successfully processed and added to your personality context."
-            ));
+            CvIngestionJob job = cvIngestionService.submit(userId, file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/cv/jobs/" + job.id()))
+                    .body(Map.of(
+                            "success", true,
+                            "jobId", job.id(),
+                            "stage", job.stage().name(),
+                            "message", "CV received, processing has started."
+                    ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -47,13 +64,46 @@ public class CVController {
                     "success", false,
                     "message", "An error occurred while reading the CV file: " + e.getMessage()
             ));
-        } catch (RuntimeException e) {
-            // Covers AI extractor failures, JSON parse errors, etc.
-            return ResponseEntity.internalServerError().body(Map.of(
-                    "success", false,
-                    "message", "CV was uploaded but AI processing failed: " + e.getMessage()
-            ));
         }
     }
 
+    /**
+     * GET /api/v1/cv/jobs/{jobId}
+     * 
+     * Current stage of an ingestion job started by the authenticated user.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<CvIngestionStatus> getJob(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID jobId
+    ) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return ResponseEntity.of(cvIngestionService.find(userId, jobId).map(CvIngestionStatus::of));
+    }
+
+    /**
+     * GET /api/v1/cv/jobs/{jobId}/events
+     * 
+     * Same status as Server-Sent Events: one "status" event per stage change,
+     * and the stream ends once the job has completed or failed.
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CvIngestionStatus>> jobEvents(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID jobId
+    ) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return Flux.interval(Duration.ZERO, eventPollInterval)
+                .onBackpressureDrop()
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .map(tick -> cvIngestionService.find(userId, jobId)
+                        .map(CvIngestionStatus::of)
+                        .orElseThrow(() -> new IllegalArgumentException("CV ingestion job not found: " + jobId)))
+                .distinctUntilChanged()
+                .takeUntil(CvIngestionStatus::done)
+                .map(status -> ServerSentEvent.builder(status)
+                        .event("status")
+                        .build());
+    }
+
 }
@@ -4,10 +4,14 @@ import com.naammm.portfolioservice.dto.ApiResponse;
 import com.naammm.portfolioservice.dto.ChatRequest;
 import com.naammm.portfolioservice.service.ChatService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/public/chat")
@@ -17,13 +21,32 @@ public class ChatController {
     private final ChatService chatService;
 
     @PostMapping("/{slug}")
-    public ResponseEntity<ApiResponse<Map<String, String>>> chat(
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> chat(
             @PathVariable String slug,
             @RequestBody ChatRequest request
     ) {
-        String response = chatService.generateResponse(slug, request.getMessage(), request.getHistory());
-        return ResponseEntity.ok(ApiResponse.success(Map.of(
-                "reply", response
-        )));
+        return chatService.generateResponseAsync(slug, request)
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success(Map.of(
+                        "reply", response.reply(),
+                        "sessionId", response.sessionId()
+                ))));
+    }
+
+    /**
+     * POST /api/v1/public/chat/{slug}/stream
+     *
+     * Same contract as {@link #chat}, but pushes the reply as Server-Sent Events
+     * (session, type, leadDelta fragments, lead, card, followUp, then done/error) while the
+     * model is generating.
+     */
+    @PostMapping(value = "/{slug}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> chatStream(
+            @PathVariable String slug,
+            @RequestBody ChatRequest request
+    ) {
+        return chatService.streamResponse(slug, request)
+                .map(event -> ServerSentEvent.builder(event.data())
+                        .event(event.event())
+                        .build());
     }
 }
@@ -1,12 +1,22 @@
 package com.naammm.portfolioservice.controller;
 
+import com.naammm.portfolioservice.dto.PresignedUpload;
+import com.naammm.portfolioservice.dto.PresignedUploadRequest;
+import com.naammm.portfolioservice.dto.UploadedFile;
 import com.naammm.portfolioservice.service.FileService;
+import com.naammm.portfolioservice.service.PresignedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/files")
@@ -14,10 +24,59 @@ import java.util.Map;
 public class FileController {
 
     private final FileService fileService;
+    private final PresignedUploadService presignedUploadService;
 
     @PostMapping("/upload")
-    public ResponseEntity<Map<String, String>> uploadFile(@RequestParam("file") MultipartFile file) {
-        String fileDownloadUri = fileService.storeFile(file);
-        return ResponseEntity.ok(Map.of("url", fileDownloadUri, "filename", file.getOriginalFilename()));
+    public ResponseEntity<UploadedFile> uploadFile(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(fileService.storeFile(file));
+    }
+
+    /**
+     * PUT /api/v1/files/stream?filename=...
+     *
+     * Same result as {@link #uploadFile}, but the request body is the raw file (with its own
+     * Content-Type) and is piped to object storage as it arrives instead of being parsed as
+     * multipart and spooled first. Meant for large files such as videos.
+     */
+    @PutMapping("/stream")
+    public ResponseEntity<UploadedFile> streamFile(
+            @RequestParam("filename") String filename,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        return ResponseEntity.ok(fileService.storeStream(request.getInputStream(), filename, contentType));
+    }
+
+    /**
+     * POST /api/v1/files/presign
+     *
+     * Issues a short-lived URL the browser uploads the file to directly, bypassing the
+     * gateway and this service. Must be followed by {@link #completePresigned}.
+     */
+    @PostMapping("/presign")
+    public ResponseEntity<PresignedUpload> presign(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody PresignedUploadRequest request
+    ) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        return ResponseEntity.ok(presignedUploadService.presign(userId, request));
+    }
+
+    /**
+     * POST /api/v1/files/presign/complete
+     *
+     * Verifies the uploaded object and registers it; returns the same body as {@link #uploadFile}.
+     */
+    @PostMapping("/presign/complete")
+    public ResponseEntity<UploadedFile> completePresigned(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody Map<String, String> request
+    ) {
+        UUID userId = UUID.fromString(jwt.getSubject());
+        String objectKey = request.get("objectKey");
+        if (objectKey == null || objectKey.isBlank()) {
+            throw new IllegalArgumentException("objectKey is required");
+        }
+        return ResponseEntity.ok(presignedUploadService.complete(userId, objectKey));
     }
 }
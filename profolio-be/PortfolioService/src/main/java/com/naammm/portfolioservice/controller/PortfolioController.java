@@ -4,14 +4,21 @@ import com.naammm.portfolioservice.dto.AIPersonalityDto;
 import com.naammm.portfolioservice.dto.PortfolioDto;
 import com.naammm.portfolioservice.dto.SuggestedQuestionDto;
 import com.naammm.portfolioservice.service.PortfolioService;
+import com.naammm.portfolioservice.service.PublicPortfolioSnapshot;
+import com.naammm.portfolioservice.service.PublicPortfolioSnapshotCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -20,6 +27,10 @@ import java.util.UUID;
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final PublicPortfolioSnapshotCache snapshotCache;
+
+    @Value("${portfolio.public-snapshots.max-age:0s}")
+    private Duration publicMaxAge;
 
     // --- Portfolio Endpoints ---
 
@@ -94,8 +105,35 @@ public class PortfolioController {
 
     // --- Public Endpoints (No Auth) ---
 
+    /**
+     * Serves the pre-rendered snapshot bytes in the best encoding the client accepts.
+     * Clients revalidate with If-None-Match and get a bodiless 304 while the content
+     * hash is unchanged.
+     */
     @GetMapping("/public/portfolio/{slug}")
-    public ResponseEntity<Map<String, Object>> getPublicPortfolio(@PathVariable String slug) {
-        return ResponseEntity.ok(portfolioService.getPublicPortfolio(slug));
+    public ResponseEntity<byte[]> getPublicPortfolio(
+            @PathVariable String slug,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PublicPortfolioSnapshot snapshot = snapshotCache.get(slug);
+        CacheControl cacheControl = CacheControl.maxAge(publicMaxAge).cachePublic().mustRevalidate();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.select(acceptEncoding).etag())
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        PublicPortfolioSnapshot.Variant variant = snapshotCache.variantFor(snapshot, acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(variant.etag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (variant.isCompressed()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        }
+        return response.body(variant.body());
     }
 }
@@ -0,0 +1,4 @@
+package com.naammm.portfolioservice.dto;
+
+public record ChatReply(String reply, String sessionId) {
+}
@@ -7,5 +7,8 @@ import java.util.Map;
 @Data
 public class ChatRequest {
     private String message;
+    // Returned by the first reply; the server keeps the conversation from then on
+    private String sessionId;
+    // Legacy: full history resent by older clients, only used to seed a new session
     private List<Map<String, String>> history;
 }
@@ -0,0 +1,39 @@
+package com.naammm.portfolioservice.dto;
+
+import java.util.Map;
+
+/**
+ * A single Server-Sent Event pushed by the streaming chat endpoint.
+ * The event name mirrors the reply JSON schema (type, lead, card, followUp)
+ * and is terminated by either a "done" or an "error" event. The first event
+ * always carries the session id to send with the next message. The lead is also
+ * streamed as "leadDelta" fragments while the model is still writing it; they add up
+ * to the text of the "lead" event that follows.
+ */
+public record ChatStreamEvent(String event, Object data) {
+
+    public static final String SESSION = "session";
+    public static final String TYPE = "type";
+    public static final String LEAD = "lead";
+    public static final String LEAD_DELTA = "leadDelta";
+    public static final String CARD = "card";
+    public static final String FOLLOW_UP = "followUp";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+
+    public static ChatStreamEvent text(String event, String text) {
+        return new ChatStreamEvent(event, Map.of("text", text));
+    }
+
+    public static ChatStreamEvent session(String sessionId) {
+        return new ChatStreamEvent(SESSION, Map.of("sessionId", sessionId));
+    }
+
+    public static ChatStreamEvent done(String reply) {
+        return new ChatStreamEvent(DONE, Map.of("reply", reply));
+    }
+
+    public static ChatStreamEvent error(String message) {
+        return new ChatStreamEvent(ERROR, Map.of("message", message));
+    }
+}
@@ -0,0 +1,28 @@
+package com.naammm.portfolioservice.dto;
+
+import com.naammm.portfolioservice.service.CvIngestionJob;
+
+import java.util.UUID;
+
+/**
+ * Progress of a CV ingestion job as reported to the uploader.
+ * {@code done} is true once the job has either completed or failed.
+ */
+public record CvIngestionStatus(
+        UUID jobId,
+        String stage,
+        int progress,
+        boolean done,
+        boolean success,
+        String message) {
+
+    public static CvIngestionStatus of(CvIngestionJob job) {
+        return new CvIngestionStatus(
+                job.id(),
+                job.stage().name(),
+                job.stage().progress(),
+                job.stage().isTerminal(),
+                job.stage() == CvIngestionJob.Stage.COMPLETED,
+                job.message());
+    }
+}
@@ -3,11 +3,13 @@ package com.naammm.portfolioservice.dto;
 import com.naammm.portfolioservice.model.Portfolio;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
 public class PortfolioDto {
     private UUID id;
     private String slug;
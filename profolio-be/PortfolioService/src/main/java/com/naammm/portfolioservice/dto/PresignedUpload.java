@@ -0,0 +1,17 @@
+package com.naammm.portfolioservice.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Where and how the browser uploads a file itself: {@code method} a multipart form to
+ * {@code uploadUrl} holding {@code fields} followed by the file (as "file") before
+ * {@code expiresAt}, then confirm with the {@code objectKey}.
+ */
+public record PresignedUpload(
+        String objectKey,
+        String uploadUrl,
+        String method,
+        Map<String, String> fields,
+        Instant expiresAt) {
+}
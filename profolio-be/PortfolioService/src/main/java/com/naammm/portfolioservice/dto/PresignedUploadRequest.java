@@ -0,0 +1,11 @@
+package com.naammm.portfolioservice.dto;
+
+import lombok.Data;
+
+@Data
+public class PresignedUploadRequest {
+    private String filename;
+    private String contentType;
+    // Declared size in bytes; the upload policy refuses a larger body
+    private Long size;
+}
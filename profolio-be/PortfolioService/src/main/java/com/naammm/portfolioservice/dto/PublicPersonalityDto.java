@@ -2,6 +2,7 @@ package com.naammm.portfolioservice.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 /**
  * A sanitized version of AIPersonalityDto for public-facing endpoints.
@@ -10,6 +11,7 @@ import lombok.Data;
  */
 @Data
 @Builder
+@Jacksonized
 public class PublicPersonalityDto {
     private String professionalBio;
     private String skills;
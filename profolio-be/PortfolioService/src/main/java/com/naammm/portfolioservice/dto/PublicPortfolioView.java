@@ -0,0 +1,23 @@
+package com.naammm.portfolioservice.dto;
+
+import java.util.List;
+
+/**
+ * Everything the public portfolio page renders, loaded in a single query by
+ * {@link com.naammm.portfolioservice.repository.PortfolioRepository#findPublicViewJsonBySlug}.
+ * Serializes to the same JSON the page has always received.
+ */
+public record PublicPortfolioView(
+        PortfolioDto portfolio,
+        PublicPersonalityDto personality,
+        List<SuggestedQuestionDto> questions,
+        List<ProjectDto> projects,
+        List<SkillCategoryDto> skills,
+        ToolboxConfigDto tools) {
+
+    public PublicPortfolioView {
+        questions = questions == null ? List.of() : List.copyOf(questions);
+        projects = projects == null ? List.of() : List.copyOf(projects);
+        skills = skills == null ? List.of() : List.copyOf(skills);
+    }
+}
@@ -2,12 +2,14 @@ package com.naammm.portfolioservice.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.List;
 import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
 public class SkillCategoryDto {
     private UUID id;
     private String title;
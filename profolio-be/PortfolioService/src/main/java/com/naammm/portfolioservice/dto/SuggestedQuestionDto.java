@@ -2,11 +2,13 @@ package com.naammm.portfolioservice.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.UUID;
 
 @Data
 @Builder
+@Jacksonized
 public class SuggestedQuestionDto {
     private UUID id;
     private String question;
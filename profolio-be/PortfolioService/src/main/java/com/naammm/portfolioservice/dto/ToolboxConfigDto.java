@@ -3,11 +3,13 @@ package com.naammm.portfolioservice.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.util.List;
 
 @Data
 @Builder
+@Jacksonized
 public class ToolboxConfigDto {
     @JsonProperty("isGlobalEnabled")
     private Boolean isGlobalEnabled;
@@ -27,6 +29,7 @@ public class ToolboxConfigDto {
 
     @Data
     @Builder
+    @Jacksonized
     public static class MeInfo {
         @JsonProperty("isEnabled")
         private Boolean isEnabled;
@@ -40,6 +43,7 @@ public class ToolboxConfigDto {
 
     @Data
     @Builder
+    @Jacksonized
     public static class HobbiesInfo {
         @JsonProperty("isEnabled")
         private Boolean isEnabled;
@@ -50,6 +54,7 @@ public class ToolboxConfigDto {
 
     @Data
     @Builder
+    @Jacksonized
     public static class ContactInfo {
         @JsonProperty("isEnabled")
         private Boolean isEnabled;
@@ -64,6 +69,7 @@ public class ToolboxConfigDto {
 
     @Data
     @Builder
+    @Jacksonized
     public static class ResumeInfo {
         @JsonProperty("isEnabled")
         private Boolean isEnabled;
@@ -75,6 +81,7 @@ public class ToolboxConfigDto {
 
     @Data
     @Builder
+    @Jacksonized
     public static class VideoInfo {
         @JsonProperty("isEnabled")
         private Boolean isEnabled;
@@ -85,6 +92,7 @@ public class ToolboxConfigDto {
 
     @Data
     @Builder
+    @Jacksonized
     public static class LocationInfo {
         @JsonProperty("isEnabled")
         private Boolean isEnabled;
@@ -0,0 +1,19 @@
+package com.naammm.portfolioservice.dto;
+
+import java.util.Map;
+
+/**
+ * A stored upload. For images, {@code variants} maps each derivative format (e.g.
+ * "image/webp") to its URLs by width ("320w" → url), and {@code srcset} is ready to use
+ * in an img/source tag; both are empty for other files or images too small to resize.
+ */
+public record UploadedFile(
+        String url,
+        String filename,
+        Map<String, Map<String, String>> variants,
+        String srcset) {
+
+    public static UploadedFile of(String url, String filename) {
+        return new UploadedFile(url, filename, Map.of(), "");
+    }
+}
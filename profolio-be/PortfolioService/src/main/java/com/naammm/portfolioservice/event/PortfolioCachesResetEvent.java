@@ -0,0 +1,9 @@
+package com.naammm.portfolioservice.event;
+
+/**
+ * Published by {@link PortfolioInvalidationBus} whenever its listener (re)connects.
+ * Notifications sent while it was not listening are lost, so every cache that evicts on
+ * {@link PortfolioChangedEvent} drops all of its entries instead.
+ */
+public record PortfolioCachesResetEvent() {
+}
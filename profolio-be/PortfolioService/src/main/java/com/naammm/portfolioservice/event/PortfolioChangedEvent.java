@@ -0,0 +1,26 @@
+package com.naammm.portfolioservice.event;
+
+import com.naammm.portfolioservice.model.Portfolio;
+
+import java.util.UUID;
+
+/**
+ * Published by owner-side writes whenever anything that feeds the public page or the
+ * chat context changes. Listeners react after the surrounding transaction commits.
+ * The same event is replayed on every other instance by {@link PortfolioInvalidationBus}.
+ *
+ * @param previousSlug the slug before a rename, or null when the slug did not change
+ * @param version      epoch millis at which the change was published
+ * @param remote       true when the change was made on another instance and only caches
+ *                     need to react; side effects such as answer warm-up stay on the origin
+ */
+public record PortfolioChangedEvent(UUID portfolioId, String slug, String previousSlug, long version, boolean remote) {
+
+    public static PortfolioChangedEvent of(Portfolio portfolio) {
+        return new PortfolioChangedEvent(portfolio.getId(), portfolio.getSlug(), null, System.currentTimeMillis(), false);
+    }
+
+    public static PortfolioChangedEvent renamed(Portfolio portfolio, String previousSlug) {
+        return new PortfolioChangedEvent(portfolio.getId(), portfolio.getSlug(), previousSlug, System.currentTimeMillis(), false);
+    }
+}
@@ -0,0 +1,216 @@
+package com.naammm.portfolioservice.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the in-process caches of all instances in step over Postgres LISTEN/NOTIFY,
+ * so no broker is needed next to portfoliodb.
+ *
+ * Local changes are sent with pg_notify once their transaction has committed. Every
+ * instance keeps one dedicated connection listening on the channel and republishes
+ * what other instances sent as a remote {@link PortfolioChangedEvent}, which the
+ * caches evict on exactly like a local one. Notifications sent while the listener is
+ * not connected are lost, and some caches never expire on their own, so every
+ * (re)connect publishes a {@link PortfolioCachesResetEvent} that clears them all.
+ */
+@Component
+@Slf4j
+public class PortfolioInvalidationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private record Notification(UUID portfolioId, String slug, String previousSlug, long version, String origin) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final String channel;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter sent;
+    private final Counter received;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private volatile Thread listener;
+    private volatile Connection connection;
+
+    public PortfolioInvalidationBus(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            DataSourceProperties dataSourceProperties,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${portfolio.invalidation-bus.enabled:true}") boolean enabled,
+            @Value("${portfolio.invalidation-bus.channel:portfolio_changed}") String channel,
+            @Value("${portfolio.invalidation-bus.poll-timeout:1s}") Duration pollTimeout,
+            @Value("${portfolio.invalidation-bus.reconnect-delay:5s}") Duration reconnectDelay) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.sent = Counter.builder("portfolio.invalidation.sent").register(meterRegistry);
+        this.received = Counter.builder("portfolio.invalidation.received").register(meterRegistry);
+        this.lag = Timer.builder("portfolio.invalidation.lag")
+                .description("Time from the change on the origin instance to its eviction here")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs after the owner's transaction committed. The notification gets its own short
+     * transaction: the committed one may still hold its connection at this point, and a
+     * NOTIFY issued there would never be delivered.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (!enabled || event.remote()) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(new Notification(
+                    event.portfolioId(), event.slug(), event.previousSlug(), event.version(), nodeId));
+            newTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload));
+            sent.increment();
+        } catch (Exception e) {
+            log.warn("Could not broadcast change of portfolio {}: {}", event.portfolioId(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Portfolio invalidation bus disabled, caches are only evicted locally");
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().name("portfolio-invalidation-listener").daemon().start(this::listen);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for portfolio changes on channel {}", channel);
+                resetCaches();
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener lost its connection, retrying in {}: {}", reconnectDelay, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void resetCaches() {
+        try {
+            eventPublisher.publishEvent(new PortfolioCachesResetEvent());
+        } catch (RuntimeException e) {
+            log.error("Clearing portfolio caches after connecting the invalidation listener failed", e);
+        }
+    }
+
+    void handle(String payload) {
+        Notification notification;
+        try {
+            notification = objectMapper.readValue(payload, Notification.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed invalidation notification {}: {}", payload, e.getMessage());
+            return;
+        }
+        if (nodeId.equals(notification.origin())) {
+            return;
+        }
+        received.increment();
+        lag.record(Math.max(0, System.currentTimeMillis() - notification.version()), TimeUnit.MILLISECONDS);
+        log.debug("Evicting portfolio {} ({}) changed on another instance", notification.portfolioId(), notification.slug());
+        try {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(notification.portfolioId(), notification.slug(),
+                    notification.previousSlug(), notification.version(), true));
+        } catch (RuntimeException e) {
+            log.error("Evicting portfolio {} after a remote change failed", notification.portfolioId(), e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        Connection conn = connection;
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException ignored) {
+                // closing unblocks the listener, nothing else to do
+            }
+        }
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.naammm.portfolioservice.exception;
+
+/**
+ * Thrown when the CV ingestion queue is full. Uploads are cheap to retry, so the client
+ * is told to come back instead of the queue growing without bound.
+ */
+public class CvIngestionBusyException extends RuntimeException {
+
+    public CvIngestionBusyException(String message) {
+        super(message);
+    }
+}
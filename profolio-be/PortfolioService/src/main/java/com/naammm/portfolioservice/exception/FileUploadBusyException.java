@@ -0,0 +1,13 @@
+package com.naammm.portfolioservice.exception;
+
+/**
+ * Thrown when the service already streams as many uploads as it has memory for. Each
+ * streamed upload buffers several parts, so further ones are refused with a retry hint
+ * instead of exhausting the heap.
+ */
+public class FileUploadBusyException extends RuntimeException {
+
+    public FileUploadBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.naammm.portfolioservice.exception;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
@@ -34,6 +36,86 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(PortfolioNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handlePortfolioNotFound(PortfolioNotFoundException ex) {
+        log.debug("{}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "error", "NOT_FOUND",
+                "message", ex.getMessage(),
+                "timestamp", LocalDateTime.now().toString()
+        ));
+    }
+
+    @ExceptionHandler(LlmCapacityException.class)
+    public ResponseEntity<Map<String, Object>> handleLlmCapacity(LlmCapacityException ex) {
+        log.warn("LLM bulkhead saturated: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", ex.getMessage(),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+
+    @ExceptionHandler(CvIngestionBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleCvIngestionBusy(CvIngestionBusyException ex) {
+        log.warn("CV ingestion queue full: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", ex.getMessage(),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+
+    @ExceptionHandler(FileUploadBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleFileUploadBusy(FileUploadBusyException ex) {
+        log.warn("Streamed upload refused: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", ex.getMessage(),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+
+    @ExceptionHandler(StorageUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleStorageUnavailable(StorageUnavailableException ex) {
+        log.warn("File storage unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "10")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", ex.getMessage(),
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<Map<String, Object>> handleCircuitOpen(CallNotPermittedException ex) {
+        log.warn("LLM circuit open: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of(
+                        "error", "SERVICE_UNAVAILABLE",
+                        "message", "AI provider is temporarily unavailable, please retry later",
+                        "timestamp", LocalDateTime.now().toString()
+                ));
+    }
+
+    @ExceptionHandler(LlmTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleLlmTimeout(LlmTimeoutException ex) {
+        log.warn("LLM call timed out: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of(
+                "error", "GATEWAY_TIMEOUT",
+                "message", ex.getMessage(),
+                "timestamp", LocalDateTime.now().toString()
+        ));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex) {
         log.error("Runtime exception: {}", ex.getMessage(), ex);
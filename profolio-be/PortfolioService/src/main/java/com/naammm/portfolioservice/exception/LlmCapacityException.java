@@ -0,0 +1,12 @@
+package com.naammm.portfolioservice.exception;
+
+/**
+ * Thrown when the LLM bulkhead is saturated: too many calls queued, or a call waited
+ * longer than the queue timeout for a free slot. Mapped to 503 so clients back off.
+ */
+public class LlmCapacityException extends RuntimeException {
+
+    public LlmCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.naammm.portfolioservice.exception;
+
+/**
+ * Thrown when an LLM call did not finish within its per-call timeout. The call is
+ * interrupted and its bulkhead slot released.
+ */
+public class LlmTimeoutException extends RuntimeException {
+
+    public LlmTimeoutException(String message) {
+        super(message);
+    }
+}
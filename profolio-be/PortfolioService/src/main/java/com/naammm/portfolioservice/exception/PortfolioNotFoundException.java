@@ -0,0 +1,12 @@
+package com.naammm.portfolioservice.exception;
+
+/**
+ * Thrown when a public slug does not resolve to a portfolio. Answered with a plain 404
+ * and no stack trace, since unknown slugs are mostly typos and scrapers.
+ */
+public class PortfolioNotFoundException extends RuntimeException {
+
+    public PortfolioNotFoundException(String slug) {
+        super("Portfolio not found for slug: " + slug);
+    }
+}
@@ -0,0 +1,13 @@
+package com.naammm.portfolioservice.exception;
+
+/**
+ * Thrown by file operations while object storage has not been reached yet (the bucket is
+ * set up in the background after startup), so only file endpoints fail instead of the
+ * whole service.
+ */
+public class StorageUnavailableException extends RuntimeException {
+
+    public StorageUnavailableException(String message) {
+        super(message);
+    }
+}
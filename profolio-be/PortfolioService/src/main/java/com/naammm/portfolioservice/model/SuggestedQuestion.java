@@ -34,4 +34,14 @@ public class SuggestedQuestion {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    // Pre-generated chat reply, valid only while answerVersion matches the current context
+    @Column(name = "answer_json", columnDefinition = "TEXT")
+    private String answerJson;
+
+    @Column(name = "answer_version")
+    private String answerVersion;
+
+    @Column(name = "answered_at")
+    private LocalDateTime answeredAt;
 }
@@ -1,8 +1,10 @@
 package com.naammm.portfolioservice.repository;
 
 import com.naammm.portfolioservice.model.AIPersonality;
-import com.naammm.portfolioservice.model.Portfolio;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,6 +12,6 @@ import java.util.UUID;
 
 @Repository
 public interface AIPersonalityRepository extends JpaRepository<AIPersonality, UUID> {
-    Optional<AIPersonality> findByPortfolio(Portfolio portfolio);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AIPersonality> findByPortfolioId(UUID portfolioId);
 }
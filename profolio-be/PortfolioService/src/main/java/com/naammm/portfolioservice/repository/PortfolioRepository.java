@@ -1,7 +1,12 @@
 package com.naammm.portfolioservice.repository;
 
 import com.naammm.portfolioservice.model.Portfolio;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,7 +14,124 @@ import java.util.UUID;
 
 @Repository
 public interface PortfolioRepository extends JpaRepository<Portfolio, UUID> {
-    Optional<Portfolio> findByUserId(UUID userId);
-    Optional<Portfolio> findBySlug(String slug);
     boolean existsBySlug(String slug);
+
+    // Id-only lookups for PortfolioIdResolver; they never load the row into the session
+    @Query("SELECT p.id FROM Portfolio p WHERE p.slug = :slug")
+    Optional<UUID> findIdBySlug(@Param("slug") String slug);
+
+    @Query("SELECT p.id FROM Portfolio p WHERE p.userId = :userId")
+    Optional<UUID> findIdByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Loads the whole public page of a portfolio in one round trip, aggregated by Postgres
+     * into the JSON shape of {@link com.naammm.portfolioservice.dto.PublicPortfolioView}.
+     * Child rows are ordered deterministically so identical content yields identical JSON.
+     */
+    @Query(value = """
+            SELECT CAST(json_build_object(
+                'portfolio', json_build_object(
+                    'id', p.id,
+                    'slug', p.slug,
+                    'status', p.status,
+                    'theme', p.theme,
+                    'avatarUrl', p.avatar_url,
+                    'avatarShape', p.avatar_shape,
+                    'cursorAnimation', p.cursor_animation,
+                    'headline', p.headline,
+                    'tagline', p.tagline,
+                    'chatPlaceholder', p.chat_placeholder,
+                    'showModal', p.show_modal,
+                    'modalTitle', p.modal_title,
+                    'modalContent', p.modal_content),
+                'personality', json_build_object(
+                    'professionalBio', a.professional_bio,
+                    'skills', a.skills,
+                    'biggestFlex', a.biggest_flex),
+                'questions', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', q.id,
+                        'question', q.question,
+                        'category', q.category,
+                        'isDefault', q.is_default) ORDER BY q.created_at, q.id)
+                    FROM suggested_questions q
+                    WHERE q.portfolio_id = p.id), CAST('[]' AS json)),
+                'projects', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', pr.id,
+                        'title', pr.title,
+                        'category', pr.category,
+                        'description', pr.description,
+                        'date', pr.date,
+                        'tags', pr.tags,
+                        'links', pr.links,
+                        'displayOrder', pr.display_order) ORDER BY pr.display_order, pr.id)
+                    FROM projects pr
+                    WHERE pr.portfolio_id = p.id), CAST('[]' AS json)),
+                'skills', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', c.id,
+                        'title', c.title,
+                        'skills', COALESCE((
+                            SELECT json_agg(s.name ORDER BY s.display_order, s.id)
+                            FROM skills s
+                            WHERE s.skill_category_id = c.id), CAST('[]' AS json)),
+                        'displayOrder', c.display_order) ORDER BY c.display_order, c.id)
+                    FROM skill_categories c
+                    WHERE c.portfolio_id = p.id), CAST('[]' AS json)),
+                'tools', (
+                    SELECT json_build_object(
+                        'isGlobalEnabled', t.is_global_enabled,
+                        'isProjectsEnabled', t.is_projects_enabled,
+                        'isSkillsEnabled', t.is_skills_enabled,
+                        'meInfo', json_build_object(
+                            'isEnabled', t.is_me_enabled,
+                            'name', t.me_name,
+                            'age', t.me_age,
+                            'location', t.me_location,
+                            'introduction', t.me_introduction,
+                            'tags', t.me_tags,
+                            'photoUrl', t.me_photo_url),
+                        'hobbiesInfo', json_build_object(
+                            'isEnabled', t.is_hobbies_enabled,
+                            'title', t.hobbies_title,
+                            'description', t.hobbies_description,
+                            'photos', t.hobbies_photos),
+                        'contactInfo', json_build_object(
+                            'isEnabled', t.is_contact_enabled,
+                            'name', t.contact_name,
+                            'email', t.contact_email,
+                            'phone', t.contact_phone,
+                            'handle', t.contact_handle,
+                            'address', t.contact_address,
+                            'socialPlatforms', t.contact_social_platforms,
+                            'socialUrls', t.contact_social_urls),
+                        'resumeInfo', json_build_object(
+                            'isEnabled', t.is_resume_enabled,
+                            'title', t.resume_title,
+                            'description', t.resume_description,
+                            'fileUrl', t.resume_file_url,
+                            'fileName', t.resume_file_name),
+                        'videoInfo', json_build_object(
+                            'isEnabled', t.is_video_enabled,
+                            'title', t.video_title,
+                            'url', t.video_url,
+                            'description', t.video_description),
+                        'locationInfo', json_build_object(
+                            'isEnabled', t.is_location_enabled,
+                            'city', t.location_city,
+                            'country', t.location_country))
+                    FROM toolbox_config t
+                    WHERE t.portfolio_id = p.id)
+            ) AS text)
+            FROM portfolios p
+            LEFT JOIN LATERAL (
+                SELECT ap.professional_bio, ap.skills, ap.biggest_flex
+                FROM ai_personalities ap
+                WHERE ap.portfolio_id = p.id
+                LIMIT 1
+            ) a ON TRUE
+            WHERE p.slug = :slug
+            """, nativeQuery = true)
+    Optional<String> findPublicViewJsonBySlug(@Param("slug") String slug);
 }
@@ -1,12 +1,15 @@
 package com.naammm.portfolioservice.repository;
 
-import com.naammm.portfolioservice.model.Portfolio;
 import com.naammm.portfolioservice.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
-    List<Project> findByPortfolioOrderByDisplayOrderAsc(Portfolio portfolio);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Project> findByPortfolioIdOrderByDisplayOrderAsc(UUID portfolioId);
 }
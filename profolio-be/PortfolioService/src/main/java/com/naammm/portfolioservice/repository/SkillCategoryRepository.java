@@ -1,12 +1,15 @@
 package com.naammm.portfolioservice.repository;
 
-import com.naammm.portfolioservice.model.Portfolio;
 import com.naammm.portfolioservice.model.SkillCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface SkillCategoryRepository extends JpaRepository<SkillCategory, UUID> {
-    List<SkillCategory> findByPortfolioOrderByDisplayOrderAsc(Portfolio portfolio);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<SkillCategory> findByPortfolioIdOrderByDisplayOrderAsc(UUID portfolioId);
 }
@@ -1,15 +1,27 @@
 package com.naammm.portfolioservice.repository;
 
-import com.naammm.portfolioservice.model.Portfolio;
 import com.naammm.portfolioservice.model.SuggestedQuestion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SuggestedQuestionRepository extends JpaRepository<SuggestedQuestion, UUID> {
-    List<SuggestedQuestion> findByPortfolio(Portfolio portfolio);
     List<SuggestedQuestion> findByPortfolioId(UUID portfolioId);
+
+    // Targeted update so a background answer never overwrites a concurrent edit of the question itself
+    @Transactional
+    @Modifying
+    @Query("UPDATE SuggestedQuestion q SET q.answerJson = :answer, q.answerVersion = :version, q.answeredAt = :answeredAt WHERE q.id = :id")
+    int updateAnswer(@Param("id") UUID id,
+                     @Param("answer") String answer,
+                     @Param("version") String version,
+                     @Param("answeredAt") LocalDateTime answeredAt);
 }
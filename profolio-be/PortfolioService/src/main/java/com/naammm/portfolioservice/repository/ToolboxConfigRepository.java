@@ -1,12 +1,15 @@
 package com.naammm.portfolioservice.repository;
 
-import com.naammm.portfolioservice.model.Portfolio;
 import com.naammm.portfolioservice.model.ToolboxConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ToolboxConfigRepository extends JpaRepository<ToolboxConfig, UUID> {
-    Optional<ToolboxConfig> findByPortfolio(Portfolio portfolio);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<ToolboxConfig> findByPortfolioId(UUID portfolioId);
 }
@@ -0,0 +1,153 @@
+package com.naammm.portfolioservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable in-memory BM25 index over the text chunks of one portfolio.
+ *
+ * Postings are stored as parallel primitive arrays per term (chunk ids and term
+ * frequencies), so an index over a few hundred chunks costs a few kilobytes and a
+ * search is a handful of array scans with no boxing.
+ */
+public final class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from", "have", "how",
+            "i", "in", "is", "it", "me", "my", "of", "on", "or", "so", "that", "the", "this", "to", "was", "what",
+            "when", "where", "which", "who", "why", "with", "you", "your");
+
+    private static final Bm25Index EMPTY = build(List.of());
+
+    private final List<String> chunks;
+    private final Map<String, Integer> termIds;
+    private final int[][] postingChunks;
+    private final int[][] postingFrequencies;
+    private final int[] chunkLengths;
+    private final float averageLength;
+
+    private Bm25Index(List<String> chunks, Map<String, Integer> termIds, int[][] postingChunks,
+                      int[][] postingFrequencies, int[] chunkLengths, float averageLength) {
+        this.chunks = chunks;
+        this.termIds = termIds;
+        this.postingChunks = postingChunks;
+        this.postingFrequencies = postingFrequencies;
+        this.chunkLengths = chunkLengths;
+        this.averageLength = averageLength;
+    }
+
+    public static Bm25Index empty() {
+        return EMPTY;
+    }
+
+    public static Bm25Index build(List<String> chunks) {
+        List<String> texts = List.copyOf(chunks);
+        Map<String, Integer> termIds = new HashMap<>();
+        List<Map<Integer, Integer>> frequencies = new ArrayList<>(texts.size());
+        int[] chunkLengths = new int[texts.size()];
+        long totalLength = 0;
+
+        for (int chunk = 0; chunk < texts.size(); chunk++) {
+            List<String> terms = tokenize(texts.get(chunk));
+            Map<Integer, Integer> counts = new HashMap<>();
+            for (String term : terms) {
+                int termId = termIds.computeIfAbsent(term, t -> termIds.size());
+                counts.merge(termId, 1, Integer::sum);
+            }
+            frequencies.add(counts);
+            chunkLengths[chunk] = terms.size();
+            totalLength += terms.size();
+        }
+
+        int[] documentFrequency = new int[termIds.size()];
+        for (Map<Integer, Integer> counts : frequencies) {
+            counts.keySet().forEach(termId -> documentFrequency[termId]++);
+        }
+        int[][] postingChunks = new int[termIds.size()][];
+        int[][] postingFrequencies = new int[termIds.size()][];
+        for (int termId = 0; termId < documentFrequency.length; termId++) {
+            postingChunks[termId] = new int[documentFrequency[termId]];
+            postingFrequencies[termId] = new int[documentFrequency[termId]];
+        }
+        int[] filled = new int[termIds.size()];
+        for (int chunk = 0; chunk < frequencies.size(); chunk++) {
+            for (Map.Entry<Integer, Integer> entry : frequencies.get(chunk).entrySet()) {
+                int termId = entry.getKey();
+                postingChunks[termId][filled[termId]] = chunk;
+                postingFrequencies[termId][filled[termId]] = entry.getValue();
+                filled[termId]++;
+            }
+        }
+
+        float averageLength = texts.isEmpty() ? 0f : (float) totalLength / texts.size();
+        return new Bm25Index(texts, Map.copyOf(termIds), postingChunks, postingFrequencies, chunkLengths, averageLength);
+    }
+
+    /** Ids of the (at most) {@code k} best-matching chunks, best first. Chunks with no query term are never returned. */
+    public int[] search(String query, int k) {
+        if (chunks.isEmpty() || k <= 0) {
+            return new int[0];
+        }
+        float[] scores = new float[chunks.size()];
+        int n = chunks.size();
+        for (String term : Set.copyOf(tokenize(query))) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+            int[] postings = postingChunks[termId];
+            int[] tfs = postingFrequencies[termId];
+            double idf = Math.log(1 + (n - postings.length + 0.5) / (postings.length + 0.5));
+            for (int i = 0; i < postings.length; i++) {
+                int chunk = postings[i];
+                float tf = tfs[i];
+                float norm = K1 * (1 - B + B * chunkLengths[chunk] / averageLength);
+                scores[chunk] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+            }
+        }
+
+        return IntStream.range(0, n)
+                .filter(chunk -> scores[chunk] > 0)
+                .boxed()
+                .sorted((a, b) -> Float.compare(scores[b], scores[a]))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    public String chunk(int id) {
+        return chunks.get(id);
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    /** Stable across restarts, so it can be part of the prompt version. */
+    public int contentHash() {
+        return chunks.hashCode();
+    }
+
+    /** Lowercased words and numbers, minus stop words, with a naive plural strip ("projects" matches "project"). */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> term.length() > 1 && !STOP_WORDS.contains(term))
+                .map(term -> term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")
+                        ? term.substring(0, term.length() - 1)
+                        : term)
+                .toList();
+    }
+}
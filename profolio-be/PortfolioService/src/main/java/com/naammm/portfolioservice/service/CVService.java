@@ -1,35 +1,263 @@
 package com.naammm.portfolioservice.service;
 
-import org.apache.tika.Tika;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.tika.exception.TikaException;
+import org.apache.tika.exception.WriteLimitReachedException;
+import org.apache.tika.fork.ForkParser;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.PagedText;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.SAXException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Turns uploaded CV documents into plain text with Tika.
+ *
+ * Parsing runs on a small bounded pool and every document gets a deadline, so a
+ * pathological PDF cannot hold a caller forever. Extracted text is capped: a CV never
+ * needs more than a few thousand words, and the cap keeps a text bomb from filling the
+ * heap. Documents are parsed in a separate JVM (Tika's ForkParser), which is killed
+ * when it overruns the deadline, so a parser that runs away with memory or CPU takes
+ * down the child process and not this service. There is one child JVM per parser thread
+ * by default; with fewer, a parse could spend its own deadline waiting for a free child.
+ *
+ * In-process Tika ignores interrupts, so a document parsed without the fork that misses
+ * its deadline keeps its worker busy. That worker is written off and the pool grows by
+ * one until it finishes, up to cv.parsing.max-stuck-workers, so a couple of pathological
+ * files cannot stall parsing for everyone.
+ */
 @Service
+@Slf4j
 public class CVService {
 
-    private final Tika tika = new Tika();
+    private final Parser parser = new AutoDetectParser();
+    private final ForkParser forkParser;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final int maxCharacters;
+    private final long forkThreshold;
+    private final DistributionSummary pages;
+    private final DistributionSummary characters;
+    private final int maxStuckWorkers;
+    private final AtomicInteger stuckWorkers = new AtomicInteger();
+
+    public CVService(
+            MeterRegistry meterRegistry,
+            @Value("${cv.parsing.threads:2}") int threads,
+            @Value("${cv.parsing.queue-capacity:8}") int queueCapacity,
+            @Value("${cv.parsing.timeout:30s}") Duration timeout,
+            @Value("${cv.parsing.max-characters:200000}") int maxCharacters,
+            @Value("${cv.parsing.fork.enabled:true}") boolean forkEnabled,
+            @Value("${cv.parsing.fork.threshold:0B}") DataSize forkThreshold,
+            @Value("${cv.parsing.fork.pool-size:${cv.parsing.threads:2}}") int forkPoolSize,
+            @Value("${cv.parsing.fork.java-command:java -Xmx256m}") String forkJavaCommand,
+            @Value("${cv.parsing.max-stuck-workers:4}") int maxStuckWorkers) {
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.maxCharacters = maxCharacters;
+        this.forkThreshold = forkThreshold.toBytes();
+        this.maxStuckWorkers = maxStuckWorkers;
+
+        if (forkEnabled) {
+            this.forkParser = new ForkParser(CVService.class.getClassLoader(), new AutoDetectParser());
+            this.forkParser.setPoolSize(forkPoolSize);
+            this.forkParser.setJavaCommand(List.of(forkJavaCommand.trim().split("\\s+")));
+            this.forkParser.setServerParseTimeoutMillis(timeout.toMillis());
+        } else {
+            this.forkParser = null;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "cv-parser-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("cv.parse.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Documents being parsed")
+                .register(meterRegistry);
+        Gauge.builder("cv.parse.stuck", stuckWorkers, AtomicInteger::get)
+                .description("Workers still parsing a document past its deadline")
+                .register(meterRegistry);
+        this.pages = DistributionSummary.builder("cv.parse.pages")
+                .description("Pages per parsed document, when the format reports them")
+                .register(meterRegistry);
+        this.characters = DistributionSummary.builder("cv.parse.characters")
+                .description("Characters of text extracted per document")
+                .baseUnit("characters")
+                .register(meterRegistry);
+    }
 
     /**
-     * Extracts text from an uploaded CV file (PDF, DOCX, etc.)
+     * Extracts text from the bytes of an uploaded CV file (PDF, DOCX, etc.)
      * 
-     * @param file The uploaded multipart file
-     * @return Extracted text content
-     * @throws IOException If file reading fails
+     * @param content The file content, read before the upload request completed
+     * @return Extracted text content, cut at cv.parsing.max-characters
+     * @throws IOException If the document cannot be parsed in time
      */
-    public String extractText(MultipartFile file) throws IOException {
-        if (file.isEmpty()) {
+    public String extractText(byte[] content) throws IOException {
+        if (content.length == 0) {
             throw new IllegalArgumentException("File is empty");
         }
 
-        try (InputStream stream = file.getInputStream()) {
-            return tika.parseToString(stream);
-        } catch (TikaException e) {
-            throw new IOException("Failed to parse document content", e);
+        boolean forked = forkParser != null && content.length >= forkThreshold;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        Future<String> pending = null;
+        ParseTask task = new ParseTask(content, forked ? forkParser : parser);
+        try {
+            pending = executor.submit(task);
+            String text = pending.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            outcome = "success";
+            characters.record(text.length());
+            return text;
+        } catch (RejectedExecutionException e) {
+            outcome = "rejected";
+            throw new IOException("Too many documents are being parsed, please try again in a minute", e);
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            pending.cancel(true);
+            task.abandon();
+            log.warn("Parsing a {} byte document timed out after {}", content.length, timeout);
+            throw new IOException("The document took too long to parse", e);
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            task.abandon();
+            Thread.currentThread().interrupt();
+            throw new IOException("Parsing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Failed to parse document content", e.getCause());
+        } finally {
+            sample.stop(Timer.builder("cv.parse.duration")
+                    .description("Time to extract the text of one document")
+                    .tag("mode", forked ? "fork" : "in-process")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /** Adds a worker in place of one that is stuck on a document nobody waits for any more. */
+    private boolean replaceStuckWorker() {
+        if (stuckWorkers.get() >= maxStuckWorkers) {
+            log.error("{} CV parser workers are stuck past their deadline; not adding more", stuckWorkers.get());
+            return false;
         }
+        stuckWorkers.incrementAndGet();
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() + 1);
+        executor.setCorePoolSize(executor.getCorePoolSize() + 1);
+        return true;
+    }
+
+    private void releaseStuckWorker() {
+        stuckWorkers.decrementAndGet();
+        executor.setCorePoolSize(executor.getCorePoolSize() - 1);
+        executor.setMaximumPoolSize(executor.getMaximumPoolSize() - 1);
+    }
+
+    /**
+     * A parse that knows whether the caller gave up on it while it was running, so the
+     * extra worker added in its place is removed again when it finally returns. State
+     * changes happen under the service's lock, so the two sides cannot miss each other.
+     */
+    private final class ParseTask implements Callable<String> {
+
+        private final byte[] content;
+        private final Parser parser;
+        private boolean started;
+        private boolean finished;
+        private boolean abandoned;
+        private boolean replaced;
+
+        ParseTask(byte[] content, Parser parser) {
+            this.content = content;
+            this.parser = parser;
+        }
+
+        @Override
+        public String call() throws IOException {
+            synchronized (CVService.this) {
+                if (abandoned) {
+                    return "";
+                }
+                started = true;
+            }
+            try {
+                return parse(content, parser);
+            } finally {
+                synchronized (CVService.this) {
+                    finished = true;
+                    if (replaced) {
+                        releaseStuckWorker();
+                    }
+                }
+            }
+        }
+
+        /** Called once the caller stopped waiting; a task still running gets its worker replaced. */
+        void abandon() {
+            synchronized (CVService.this) {
+                if (started && !finished && !abandoned) {
+                    replaced = replaceStuckWorker();
+                }
+                abandoned = true;
+            }
+        }
+    }
+
+    private String parse(byte[] content, Parser parser) throws IOException {
+        BodyContentHandler handler = new BodyContentHandler(maxCharacters);
+        Metadata metadata = new Metadata();
+        try (InputStream stream = new ByteArrayInputStream(content)) {
+            parser.parse(stream, handler, metadata, new ParseContext());
+        } catch (SAXException | TikaException e) {
+            if (!WriteLimitReachedException.isWriteLimitReached(e)) {
+                throw new IOException("Failed to parse document content", e);
+            }
+            // Keep what fits: the beginning of a CV carries what the extractor needs
+            Counter.builder("cv.parse.truncated")
+                    .description("Documents whose text was cut at the character limit")
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        Integer pageCount = metadata.getInt(PagedText.N_PAGES);
+        if (pageCount != null) {
+            pages.record(pageCount);
+        }
+        return handler.toString();
     }
 
     /**
@@ -46,4 +274,12 @@ public class CVService {
                 contentType.equals("application/msword")
         );
     }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        if (forkParser != null) {
+            forkParser.close();
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.naammm.portfolioservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default estimator: a fixed number of characters per token. Close enough for Latin
+ * text on Gemini-style tokenizers and free to compute on every request.
+ */
+@Component
+public class CharacterRatioTokenEstimator implements TokenEstimator {
+
+    private final double charsPerToken;
+
+    public CharacterRatioTokenEstimator(@Value("${chat.prompt.chars-per-token:4.0}") double charsPerToken) {
+        this.charsPerToken = charsPerToken;
+    }
+
+    @Override
+    public int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    /** Cuts at the character limit, backing off to the last whitespace so words stay whole. */
+    @Override
+    public String truncate(String text, int maxTokens) {
+        if (text == null || maxTokens <= 0) {
+            return "";
+        }
+        int limit = (int) (maxTokens * charsPerToken);
+        if (text.length() <= limit) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', limit);
+        return text.substring(0, cut > limit / 2 ? cut : limit);
+    }
+}
@@ -0,0 +1,181 @@
+package com.naammm.portfolioservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.naammm.portfolioservice.event.PortfolioCachesResetEvent;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches replies to first-turn questions (no history), keyed on the portfolio slug,
+ * its content version and the normalized question text.
+ *
+ * Concurrent identical questions are coalesced: the first caller runs the model call,
+ * everyone else waits on the same future. Failed calls are never cached, and neither are
+ * replies the caller does not consider cacheable (e.g. malformed JSON); requests already
+ * waiting still receive them.
+ */
+@Component
+@Slf4j
+public class ChatAnswerCache {
+
+    private record Key(String slug, String version, String question) {
+    }
+
+    private final AsyncCache<Key, String> cache;
+
+    public ChatAnswerCache(
+            MeterRegistry meterRegistry,
+            @Value("${chat.answer-cache.maximum-size:10000}") long maximumSize,
+            @Value("${chat.answer-cache.time-to-live:1h}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.answers");
+    }
+
+    /**
+     * A reply registered by {@link #begin}. Unless {@link #owner()}, it is another request's
+     * reply (cached or in flight) to wait for; the owner must {@link #complete} or
+     * {@link #fail} it, or everyone asking the same question meanwhile waits forever.
+     */
+    public final class Pending {
+
+        private final Key key;
+        private final CompletableFuture<String> reply;
+        private final boolean owner;
+
+        private Pending(Key key, CompletableFuture<String> reply, boolean owner) {
+            this.key = key;
+            this.reply = reply;
+            this.owner = owner;
+        }
+
+        public boolean owner() {
+            return owner;
+        }
+
+        public CompletableFuture<String> reply() {
+            return reply;
+        }
+
+        /** Hands the reply to every waiting request; it is kept only if {@code cacheable}. */
+        public void complete(String value, boolean cacheable) {
+            if (reply.complete(value) && !cacheable) {
+                cache.asMap().remove(key, reply);
+            }
+        }
+
+        /** Fails every waiting request and forgets the entry; no-op once completed. */
+        public void fail(Throwable error) {
+            if (reply.completeExceptionally(error)) {
+                cache.asMap().remove(key, reply);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached reply, or runs {@code loader} on the calling thread if no other
+     * request is already computing it.
+     */
+    public String get(CompiledPrompt compiled, String question, Supplier<String> loader) {
+        return get(compiled, question, loader, reply -> true);
+    }
+
+    /** Same as {@link #get(CompiledPrompt, String, Supplier)}, caching only replies that pass {@code cacheable}. */
+    public String get(CompiledPrompt compiled, String question, Supplier<String> loader, Predicate<String> cacheable) {
+        Pending pending = begin(compiled, question);
+        if (!pending.owner()) {
+            return awaitOrRethrow(pending.reply());
+        }
+
+        String reply;
+        try {
+            reply = loader.get();
+        } catch (RuntimeException e) {
+            pending.fail(e);
+            throw e;
+        }
+        pending.complete(reply, cacheable.test(reply));
+        return reply;
+    }
+
+    /**
+     * Registers a reply the caller is about to generate itself (e.g. by streaming it), so
+     * identical questions asked meanwhile wait for it instead of calling the model too.
+     */
+    public Pending begin(CompiledPrompt compiled, String question) {
+        Key key = keyOf(compiled, question);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> existing = cache.asMap().putIfAbsent(key, pending);
+        return existing != null ? new Pending(key, existing, false) : new Pending(key, pending, true);
+    }
+
+    /** Returns a reply only if one is already cached and complete; never waits. */
+    public Optional<String> getIfPresent(CompiledPrompt compiled, String question) {
+        CompletableFuture<String> future = cache.getIfPresent(keyOf(compiled, question));
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(future.join());
+    }
+
+    public void put(CompiledPrompt compiled, String question, String reply) {
+        cache.put(keyOf(compiled, question), CompletableFuture.completedFuture(reply));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        cache.asMap().keySet().removeIf(key ->
+                key.slug().equals(event.slug()) || key.slug().equals(event.previousSlug()));
+    }
+
+    @EventListener
+    public void onCachesReset(PortfolioCachesResetEvent event) {
+        cache.synchronous().invalidateAll();
+    }
+
+    /** Case, whitespace and trailing punctuation do not make a question different. */
+    static String normalize(String question) {
+        if (question == null) {
+            return "";
+        }
+        String text = Normalizer.normalize(question, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .trim();
+        return text.replaceAll("[\\s?!.。？！]+$", "");
+    }
+
+    private static Key keyOf(CompiledPrompt compiled, String question) {
+        return new Key(compiled.slug(), compiled.version(), normalize(question));
+    }
+
+    private static String awaitOrRethrow(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.naammm.portfolioservice.service;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Folds chat turns that no longer fit in the prompt into a short rolling summary:
+ * one line per message, using the "lead" of each JSON reply rather than the whole card
+ * payload. The oldest lines are dropped once the summary exceeds its token budget.
+ *
+ * Purely extractive on purpose, so compaction never costs an extra model call.
+ */
+@Component
+public class ChatHistoryCompactor {
+
+    private static final Pattern LEAD = Pattern.compile("\"lead\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final int MAX_LINE_CHARS = 200;
+
+    private final TokenEstimator tokenEstimator;
+    private final int maxSummaryTokens;
+
+    public ChatHistoryCompactor(
+            TokenEstimator tokenEstimator,
+            @Value("${chat.prompt.summary-max-tokens:300}") int maxSummaryTokens) {
+        this.tokenEstimator = tokenEstimator;
+        this.maxSummaryTokens = maxSummaryTokens;
+    }
+
+    /** Appends {@code dropped} to {@code summary} and trims it back to budget. */
+    public String fold(String summary, List<Message> dropped) {
+        List<String> lines = new ArrayList<>();
+        if (summary != null && !summary.isBlank()) {
+            lines.addAll(Arrays.asList(summary.split("\n")));
+        }
+        for (Message message : dropped) {
+            lines.add(lineOf(message));
+        }
+        while (lines.size() > 1 && tokenEstimator.estimate(String.join("\n", lines)) > maxSummaryTokens) {
+            lines.remove(0);
+        }
+        return tokenEstimator.truncate(String.join("\n", lines), maxSummaryTokens);
+    }
+
+    private static String lineOf(Message message) {
+        String text = message.getText() != null ? message.getText() : "";
+        return message.getMessageType() == MessageType.USER
+                ? "- Visitor asked: " + clip(text)
+                : "- I answered: " + clip(leadOf(text));
+    }
+
+    /** The reply's opening sentence, or the raw reply if the model broke the JSON schema. */
+    static String leadOf(String reply) {
+        Matcher matcher = LEAD.matcher(reply);
+        if (!matcher.find()) {
+            return reply;
+        }
+        return matcher.group(1).replace("\\\"", "\"").replace("\\n", " ");
+    }
+
+    private static String clip(String text) {
+        String flat = text.replaceAll("\\s+", " ").trim();
+        return flat.length() <= MAX_LINE_CHARS ? flat : flat.substring(0, MAX_LINE_CHARS) + "…";
+    }
+}
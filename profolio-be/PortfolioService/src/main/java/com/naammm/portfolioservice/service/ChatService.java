@@ -1,59 +1,224 @@
 package com.naammm.portfolioservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naammm.portfolioservice.dto.ChatReply;
+import com.naammm.portfolioservice.dto.ChatRequest;
+import com.naammm.portfolioservice.dto.ChatStreamEvent;
+import com.naammm.portfolioservice.exception.LlmCapacityException;
+import com.naammm.portfolioservice.exception.PortfolioNotFoundException;
 import com.naammm.portfolioservice.model.AIPersonality;
 import com.naammm.portfolioservice.model.Portfolio;
+import com.naammm.portfolioservice.model.SuggestedQuestion;
 import com.naammm.portfolioservice.model.ToolboxConfig;
 import com.naammm.portfolioservice.repository.AIPersonalityRepository;
 import com.naammm.portfolioservice.repository.PortfolioRepository;
+import com.naammm.portfolioservice.repository.ProjectRepository;
+import com.naammm.portfolioservice.repository.SkillCategoryRepository;
+import com.naammm.portfolioservice.repository.SuggestedQuestionRepository;
 import com.naammm.portfolioservice.repository.ToolboxConfigRepository;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
-import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ChatService {
 
-    private final ChatModel chatModel;
+    private static final String CHAT_DISABLED_REPLY = "I'm not available for chat right now. Please check back later.";
+    private static final String CHAT_ERROR_REPLY = "Sorry, I'm having trouble thinking right now. Please try again later.";
+
+    private final GuardedChatModel guardedChatModel;
+    private final OfflineChatResponder offlineResponder;
+    private final ObjectMapper objectMapper;
     private final PortfolioRepository portfolioRepository;
+    private final PortfolioIdResolver portfolioIdResolver;
     private final AIPersonalityRepository personalityRepository;
     private final ToolboxConfigRepository toolboxConfigRepository;
+    private final ProjectRepository projectRepository;
+    private final SkillCategoryRepository skillCategoryRepository;
+    private final SuggestedQuestionRepository questionRepository;
+    private final SystemPromptCache promptCache;
+    private final ChatAnswerCache answerCache;
+    private final ChatSessionStore sessionStore;
+    private final PromptBudgeter promptBudgeter;
+    private final ChatHistoryCompactor compactor;
+    private final KnowledgeChunker knowledgeChunker;
+    private final LlmExecutor llmExecutor;
 
-    public String generateResponse(String slug, String userMessage, List<Map<String, String>> history) {
-        Portfolio portfolio = portfolioRepository.findBySlug(slug)
-                .orElseThrow(() -> new RuntimeException("Portfolio not found for slug: " + slug));
+    @Value("${chat.session.max-messages:20}")
+    private int maxSessionMessages;
 
-        AIPersonality personality = personalityRepository.findByPortfolio(portfolio)
-                .orElseGet(() -> AIPersonality.builder().temperature(50).build());
+    public CompiledPrompt compiledPrompt(String slug) {
+        return promptCache.get(slug, this::compile);
+    }
+
+    /** Same as {@link #generateResponse}, off the servlet thread. */
+    public CompletableFuture<ChatReply> generateResponseAsync(String slug, ChatRequest request) {
+        return llmExecutor.async(() -> generateResponse(slug, request));
+    }
 
-        Optional<ToolboxConfig> toolboxOpt = toolboxConfigRepository.findByPortfolio(portfolio);
+    public ChatReply generateResponse(String slug, ChatRequest request) {
+        CompiledPrompt compiled = compiledPrompt(slug);
+        ChatSession session = openSession(slug, request);
 
         // Block all chat if global toggle is off
-        if (toolboxOpt.isPresent()) {
-            ToolboxConfig tc = toolboxOpt.get();
-            if (Boolean.FALSE.equals(tc.getIsGlobalEnabled())) {
-                return "I'm not available for chat right now. Please check back later.";
+        if (!compiled.chatEnabled()) {
+            return new ChatReply(CHAT_DISABLED_REPLY, session.id());
+        }
+
+        try {
+            // Only first-turn questions are identical across visitors
+            String reply = session.messages().isEmpty()
+                    ? answerFirstTurn(compiled, request.getMessage())
+                    : callModel(promptBudgeter.build(compiled, session, request.getMessage()));
+            saveTurn(session, request.getMessage(), reply);
+            return new ChatReply(reply, session.id());
+        } catch (LlmCapacityException e) {
+            throw e;
+        } catch (Exception e) {
+            logModelFailure(e);
+            String reply = offlineResponder.reply(compiled, request.getMessage());
+            saveTurn(session, request.getMessage(), reply);
+            return new ChatReply(reply, session.id());
+        }
+    }
+
+    /**
+     * Streams the reply as it is generated: the session id first, then the lead in
+     * fragments as the model writes it, one event per completed top-level field (type,
+     * lead, followUp) and per completed card, then a
+     * final "done" event with the full raw reply so clients can fall back to it if the
+     * model broke the schema.
+     */
+    public Flux<ChatStreamEvent> streamResponse(String slug, ChatRequest request) {
+        CompiledPrompt compiled = compiledPrompt(slug);
+        ChatSession session = openSession(slug, request);
+        String userMessage = request.getMessage();
+        Flux<ChatStreamEvent> sessionEvent = Flux.just(ChatStreamEvent.session(session.id()));
+
+        if (!compiled.chatEnabled()) {
+            return sessionEvent.concatWith(Flux.just(ChatStreamEvent.done(CHAT_DISABLED_REPLY)));
+        }
+
+        ChatStreamParser parser = new ChatStreamParser(objectMapper);
+
+        // First-turn replies go through the answer cache, which also coalesces identical
+        // questions: only the owner of the entry calls the model, the others replay its reply
+        ChatAnswerCache.Pending pending = null;
+        if (session.messages().isEmpty()) {
+            pending = answerCache.begin(compiled, userMessage);
+            if (!pending.owner()) {
+                return sessionEvent.concatWith(Mono.fromFuture(pending.reply(), true)
+                        .flatMapMany(reply -> replay(session, userMessage, reply, parser))
+                        .onErrorResume(e -> replay(session, userMessage, offlineResponder.reply(compiled, userMessage), parser)));
             }
         }
+        ChatAnswerCache.Pending owned = pending;
 
-        String systemPrompt = buildSystemPrompt(portfolio, personality, toolboxOpt.orElse(null));
+        Flux<String> chunks;
+        try {
+            Optional<String> pregenerated = owned != null ? pregeneratedAnswer(compiled, userMessage) : Optional.empty();
+            if (pregenerated.isPresent()) {
+                owned.complete(pregenerated.get(), true);
+                return sessionEvent.concatWith(replay(session, userMessage, pregenerated.get(), parser));
+            }
+            chunks = guardedChatModel.stream(promptBudgeter.build(compiled, session, userMessage));
+        } catch (CallNotPermittedException e) {
+            fail(owned, e);
+            return sessionEvent.concatWith(replay(session, userMessage, offlineResponder.reply(compiled, userMessage), parser));
+        } catch (RuntimeException e) {
+            fail(owned, e);
+            throw e;
+        }
 
-        List<Message> messages = new ArrayList<>();
-        messages.add(new SystemMessage(systemPrompt));
+        StringBuilder reply = new StringBuilder();
 
+        Flux<ChatStreamEvent> generated = chunks
+                .concatMapIterable(chunk -> {
+                    reply.append(chunk);
+                    return parser.feed(chunk);
+                })
+                .concatWith(Flux.defer(() -> {
+                    if (owned != null) {
+                        // A reply that broke the schema is still shown, but not served again
+                        owned.complete(reply.toString(), parser.isComplete());
+                    }
+                    saveTurn(session, userMessage, reply.toString());
+                    return Flux.just(ChatStreamEvent.done(reply.toString()));
+                }))
+                .onErrorResume(e -> {
+                    fail(owned, e);
+                    logModelFailure(e);
+                    if (reply.isEmpty()) {
+                        // Nothing was sent yet, so the offline answer can still take its place
+                        return replay(session, userMessage, offlineResponder.reply(compiled, userMessage), parser);
+                    }
+                    return Flux.just(ChatStreamEvent.error(CHAT_ERROR_REPLY));
+                })
+                // The visitor left: requests waiting on this reply must not wait forever
+                .doOnCancel(() -> fail(owned, new CancellationException("Streamed reply was cancelled")));
+
+        return sessionEvent.concatWith(generated);
+    }
+
+    /** Streams an already complete reply through the same events as a generated one. */
+    private Flux<ChatStreamEvent> replay(ChatSession session, String userMessage, String reply, ChatStreamParser parser) {
+        saveTurn(session, userMessage, reply);
+        return Flux.fromIterable(parser.feed(reply))
+                .concatWith(Flux.just(ChatStreamEvent.done(reply)));
+    }
+
+    private void saveTurn(ChatSession session, String userMessage, String reply) {
+        sessionStore.saveTurn(session, stored -> stored.withTurn(userMessage, reply, maxSessionMessages, compactor));
+    }
+
+    private static void fail(ChatAnswerCache.Pending pending, Throwable e) {
+        if (pending != null) {
+            pending.fail(e);
+        }
+    }
+
+    private static void logModelFailure(Throwable e) {
+        if (e instanceof CallNotPermittedException) {
+            log.debug("Chat model circuit is open, answering offline");
+        } else {
+            log.error("Error calling Gemini API", e);
+        }
+    }
+
+    /** Continues the visitor's session, or starts one (seeded from legacy client history, if any). */
+    private ChatSession openSession(String slug, ChatRequest request) {
+        if (request.getSessionId() != null) {
+            Optional<ChatSession> existing = sessionStore.find(request.getSessionId())
+                    .filter(session -> session.slug().equals(slug));
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        return ChatSession.start(slug, toMessages(request.getHistory()), maxSessionMessages, compactor);
+    }
+
+    private static List<Message> toMessages(List<Map<String, String>> history) {
+        List<Message> messages = new ArrayList<>();
         if (history != null) {
             for (Map<String, String> entry : history) {
                 if ("user".equals(entry.get("role"))) {
@@ -63,28 +228,99 @@ public class ChatService {
                 }
             }
         }
+        return messages;
+    }
 
-        messages.add(new UserMessage(userMessage));
+    /**
+     * Answers a question asked without history: from the answer cache, else from the
+     * pre-generated suggested-question replies, else from the model. Throws on model failure.
+     */
+    public String answerFirstTurn(CompiledPrompt compiled, String question) {
+        return answerCache.get(compiled, question, () -> pregeneratedAnswer(compiled, question)
+                        .orElseGet(() -> callModel(promptBudgeter.build(compiled, question))),
+                reply -> ChatStreamParser.parses(objectMapper, reply));
+    }
 
-        Prompt prompt = new Prompt(messages);
+    /**
+     * Generates a first-turn reply for {@link SuggestedAnswerWarmer} on the low-priority
+     * path ({@link GuardedChatModel#callInBackground}); empty when the model has no spare
+     * capacity right now.
+     */
+    public Optional<String> pregenerate(CompiledPrompt compiled, String question) {
+        return guardedChatModel.callInBackground(promptBudgeter.build(compiled, question));
+    }
 
-        try {
-            return chatModel.call(prompt).getResult().getOutput().getText();
-        } catch (Exception e) {
-            log.error("Error calling Gemini API", e);
-            return "Sorry, I'm having trouble thinking right now. Please try again later.";
+    private Optional<String> pregeneratedAnswer(CompiledPrompt compiled, String question) {
+        String normalized = ChatAnswerCache.normalize(question);
+        return questionRepository.findByPortfolioId(compiled.portfolioId()).stream()
+                .filter(q -> q.getAnswerJson() != null)
+                .filter(q -> ChatAnswerCache.normalize(q.getQuestion()).equals(normalized))
+                .filter(q -> SuggestedAnswerWarmer.answerVersion(compiled, q.getQuestion()).equals(q.getAnswerVersion()))
+                .map(SuggestedQuestion::getAnswerJson)
+                .findFirst();
+    }
+
+    private String callModel(Prompt prompt) {
+        return guardedChatModel.call(prompt);
+    }
+
+    /** Loads the portfolio context and assembles its system prompt; only runs on a prompt cache miss. */
+    private CompiledPrompt compile(String slug) {
+        UUID portfolioId = portfolioIdResolver.bySlug(slug)
+                .orElseThrow(() -> new PortfolioNotFoundException(slug));
+        Portfolio portfolio = portfolioRepository.findById(portfolioId)
+                .orElseThrow(() -> new PortfolioNotFoundException(slug));
+
+        AIPersonality personality = personalityRepository.findByPortfolioId(portfolioId)
+                .orElseGet(() -> AIPersonality.builder().temperature(50).build());
+
+        ToolboxConfig toolbox = toolboxConfigRepository.findByPortfolioId(portfolioId).orElse(null);
+
+        boolean chatEnabled = toolbox == null || !Boolean.FALSE.equals(toolbox.getIsGlobalEnabled());
+        String version = versionOf(portfolio.getUpdatedAt())
+                + "-" + versionOf(personality.getUpdatedAt())
+                + "-" + versionOf(toolbox != null ? toolbox.getUpdatedAt() : null);
+
+        if (!chatEnabled) {
+            return new CompiledPrompt(portfolio.getId(), slug, false, null, Bm25Index.empty(), null, version);
         }
+
+        Bm25Index knowledge = Bm25Index.build(knowledgeChunker.chunk(
+                personality.getCvText(),
+                projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolioId),
+                skillCategoryRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolioId),
+                toolbox));
+        log.debug("Indexed {} knowledge chunks for portfolio {}", knowledge.size(), slug);
+
+        return new CompiledPrompt(
+                portfolio.getId(),
+                slug,
+                true,
+                buildPromptPreamble(portfolio),
+                knowledge,
+                buildPromptGuidelines(personality, toolbox),
+                // Project and skill edits have no timestamp on the portfolio, so the content itself is versioned
+                version + "-" + Integer.toHexString(knowledge.contentHash()));
+    }
+
+    private static String versionOf(LocalDateTime updatedAt) {
+        return updatedAt != null ? Long.toString(updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli()) : "0";
     }
 
-    private String buildSystemPrompt(Portfolio portfolio, AIPersonality p, ToolboxConfig tc) {
+    /** Everything before the retrieved context; it ends with the context heading. */
+    private String buildPromptPreamble(Portfolio portfolio) {
         StringBuilder sb = new StringBuilder();
         sb.append("You are acting as the personal AI representative of ").append(portfolio.getHeadline()).append(".\n");
         sb.append("YOUR GOAL: Answer questions from visitors to my portfolio in a way that truly represents me.\n");
         sb.append("STRICT RULE: Always answer in the FIRST PERSON ('I', 'me', 'my'). Never say you are an AI. You ARE ").append(portfolio.getHeadline()).append(".\n\n");
 
-        sb.append("### CONTEXT ABOUT ME (FROM MY CV):\n");
-        sb.append(p.getCvText() != null ? p.getCvText() : "Information is being updated.").append("\n\n");
+        sb.append("### CONTEXT ABOUT ME (MOST RELEVANT EXCERPTS FROM MY CV, PROJECTS AND SKILLS):\n");
+        return sb.toString();
+    }
 
+    /** Everything after the retrieved context. */
+    private String buildPromptGuidelines(AIPersonality p, ToolboxConfig tc) {
+        StringBuilder sb = new StringBuilder();
         sb.append("### MY PROFESSIONAL IDENTITY:\n");
         sb.append(p.getProfessionalBio() != null ? p.getProfessionalBio() : "").append("\n");
 
@@ -0,0 +1,42 @@
+package com.naammm.portfolioservice.service;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Server-side conversation state for one visitor on one portfolio.
+ * Immutable: every turn produces a new session holding at most the last {@code maxMessages}
+ * messages; older ones are folded into {@code summary} instead of being forgotten.
+ *
+ * @param version the stored version this state was read from (0 if never stored); kept
+ *                across turns so a store can tell whether someone saved in between
+ */
+public record ChatSession(String id, String slug, String summary, List<Message> messages, long version) {
+
+    public ChatSession(String id, String slug, String summary, List<Message> messages) {
+        this(id, slug, summary, messages, 0);
+    }
+
+    public static ChatSession start(String slug, List<Message> history, int maxMessages, ChatHistoryCompactor compactor) {
+        return new ChatSession(UUID.randomUUID().toString(), slug, "", List.of())
+                .withMessages(history, maxMessages, compactor);
+    }
+
+    public ChatSession withTurn(String userMessage, String reply, int maxMessages, ChatHistoryCompactor compactor) {
+        return withMessages(List.of(new UserMessage(userMessage), new AssistantMessage(reply)), maxMessages, compactor);
+    }
+
+    private ChatSession withMessages(List<Message> added, int maxMessages, ChatHistoryCompactor compactor) {
+        List<Message> next = new ArrayList<>(messages.size() + added.size());
+        next.addAll(messages);
+        next.addAll(added);
+        int from = Math.max(0, next.size() - maxMessages);
+        String nextSummary = from > 0 ? compactor.fold(summary, next.subList(0, from)) : summary;
+        return new ChatSession(id, slug, nextSummary, List.copyOf(next.subList(from, next.size())), version);
+    }
+}
@@ -0,0 +1,19 @@
+package com.naammm.portfolioservice.service;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage for {@link ChatSession}s. Selected with {@code chat.session.store}: "memory" (default) or "jdbc".
+ */
+public interface ChatSessionStore {
+
+    Optional<ChatSession> find(String sessionId);
+
+    /**
+     * Stores {@code session} with one more turn, computed by {@code turn}. A turn saved by
+     * a concurrent request for the same session is never overwritten: {@code turn} is
+     * applied again on top of the latest stored state instead.
+     */
+    void saveTurn(ChatSession session, UnaryOperator<ChatSession> turn);
+}
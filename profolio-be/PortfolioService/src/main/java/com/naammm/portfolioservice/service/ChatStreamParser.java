@@ -0,0 +1,278 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.naammm.portfolioservice.dto.ChatStreamEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incrementally parses the reply JSON ({type, lead, cards, followUp}) while the model
+ * is still streaming it, so each top-level field and each card can be pushed to the
+ * visitor as soon as it is complete.
+ *
+ * The lead is the body of most replies, so waiting for it to complete would hold back
+ * the first visible words. Jackson only reports a string once it is closed, so the raw
+ * text is also scanned for the open lead string and its characters are emitted as
+ * "leadDelta" fragments per chunk.
+ *
+ * Not thread-safe: one instance per streamed reply.
+ */
+@Slf4j
+class ChatStreamParser {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private boolean started;
+    private boolean finished;
+    private boolean complete;
+    private int depth;
+    private String field;
+    private boolean inCards;
+    private TokenBuffer card;
+
+    // Raw scan of the top-level object for the lead value (see scanLead)
+    private int rawDepth;
+    private boolean rawDone;
+    private boolean rawInString;
+    private boolean rawEscape;
+    private int rawUnicodeLeft;
+    private int rawUnicode;
+    private boolean rawExpectingKey;
+    private boolean rawInKey;
+    private boolean rawInLead;
+    private final StringBuilder rawKey = new StringBuilder();
+    private String rawLastKey;
+    private char heldSurrogate;
+
+    ChatStreamParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create streaming JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Feeds the next chunk of model output and returns the events it completed.
+     * Anything before the root object (e.g. a markdown fence) and after it is ignored.
+     * Malformed output stops the parser silently; the caller still has the raw text.
+     */
+    List<ChatStreamEvent> feed(String chunk) {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return List.of();
+        }
+        if (!started) {
+            int start = chunk.indexOf('{');
+            if (start < 0) {
+                return List.of();
+            }
+            started = true;
+            chunk = chunk.substring(start);
+        }
+
+        List<ChatStreamEvent> events = new ArrayList<>();
+        String leadDelta = scanLead(chunk);
+        if (!leadDelta.isEmpty()) {
+            events.add(ChatStreamEvent.text(ChatStreamEvent.LEAD_DELTA, leadDelta));
+        }
+        try {
+            byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+                if (token == null) {
+                    finished = true;
+                } else {
+                    handle(token, events);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Streamed reply is not valid JSON, falling back to raw text: {}", e.getMessage());
+            finished = true;
+        }
+        return events;
+    }
+
+    /** Whether the root object was closed without a syntax error so far. */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /** Whether a whole reply is one well-formed JSON object (fences around it are fine). */
+    static boolean parses(ObjectMapper objectMapper, String reply) {
+        ChatStreamParser parser = new ChatStreamParser(objectMapper);
+        parser.feed(reply);
+        return parser.isComplete();
+    }
+
+    private void handle(JsonToken token, List<ChatStreamEvent> events) throws IOException {
+        if (card != null) {
+            card.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 2) {
+                JsonNode node = objectMapper.readTree(card.asParser());
+                events.add(new ChatStreamEvent(ChatStreamEvent.CARD, node));
+                card = null;
+            }
+            return;
+        }
+
+        switch (token) {
+            case START_OBJECT -> {
+                if (inCards && depth == 2) {
+                    card = new TokenBuffer(objectMapper, false);
+                    card.copyCurrentEvent(parser);
+                }
+                depth++;
+            }
+            case START_ARRAY -> {
+                if (depth == 1 && "cards".equals(field)) {
+                    inCards = true;
+                }
+                depth++;
+            }
+            case END_OBJECT -> {
+                if (--depth == 0) {
+                    finished = true;
+                    complete = true;
+                }
+            }
+            case END_ARRAY -> {
+                if (--depth == 1) {
+                    inCards = false;
+                }
+            }
+            case FIELD_NAME -> {
+                if (depth == 1) {
+                    field = parser.currentName();
+                }
+            }
+            case VALUE_STRING -> {
+                if (depth == 1 && field != null) {
+                    emitField(parser.getText(), events);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void emitField(String value, List<ChatStreamEvent> events) {
+        switch (field) {
+            case "type" -> events.add(ChatStreamEvent.text(ChatStreamEvent.TYPE, value));
+            case "lead" -> events.add(ChatStreamEvent.text(ChatStreamEvent.LEAD, value));
+            case "followUp" -> events.add(ChatStreamEvent.text(ChatStreamEvent.FOLLOW_UP, value));
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Tracks just enough JSON structure to find the string value of the top-level "lead"
+     * key, and returns the part of it (escapes decoded) contained in this chunk.
+     */
+    private String scanLead(String chunk) {
+        StringBuilder delta = new StringBuilder();
+        if (heldSurrogate != 0) {
+            delta.append(heldSurrogate);
+            heldSurrogate = 0;
+        }
+        for (int i = 0; i < chunk.length() && !rawDone; i++) {
+            char c = chunk.charAt(i);
+            if (rawInString) {
+                int decoded = -1;
+                if (rawUnicodeLeft > 0) {
+                    rawUnicode = rawUnicode * 16 + Character.digit(c, 16);
+                    if (--rawUnicodeLeft == 0) {
+                        decoded = rawUnicode;
+                    }
+                } else if (rawEscape) {
+                    rawEscape = false;
+                    switch (c) {
+                        case 'n' -> decoded = '\n';
+                        case 't' -> decoded = '\t';
+                        case 'r' -> decoded = '\r';
+                        case 'b' -> decoded = '\b';
+                        case 'f' -> decoded = '\f';
+                        case 'u' -> {
+                            rawUnicodeLeft = 4;
+                            rawUnicode = 0;
+                        }
+                        default -> decoded = c;
+                    }
+                } else if (c == '\\') {
+                    rawEscape = true;
+                } else if (c == '"') {
+                    rawInString = false;
+                    if (rawInKey) {
+                        rawLastKey = rawKey.toString();
+                        rawInKey = false;
+                    }
+                    rawInLead = false;
+                } else {
+                    decoded = c;
+                }
+                if (decoded >= 0) {
+                    if (rawInKey) {
+                        rawKey.append((char) decoded);
+                    } else if (rawInLead) {
+                        delta.append((char) decoded);
+                    }
+                }
+                continue;
+            }
+            switch (c) {
+                case '{', '[' -> {
+                    rawDepth++;
+                    rawExpectingKey = rawDepth == 1;
+                }
+                case '}', ']' -> {
+                    if (--rawDepth == 0) {
+                        rawDone = true;
+                    }
+                }
+                case ':' -> {
+                    if (rawDepth == 1) {
+                        rawExpectingKey = false;
+                    }
+                }
+                case ',' -> {
+                    if (rawDepth == 1) {
+                        rawExpectingKey = true;
+                    }
+                }
+                case '"' -> {
+                    rawInString = true;
+                    if (rawDepth == 1 && rawExpectingKey) {
+                        rawInKey = true;
+                        rawKey.setLength(0);
+                    } else if (rawDepth == 1 && "lead".equals(rawLastKey)) {
+                        rawInLead = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        // Never split a surrogate pair across two events
+        if (!delta.isEmpty() && Character.isHighSurrogate(delta.charAt(delta.length() - 1))) {
+            heldSurrogate = delta.charAt(delta.length() - 1);
+            delta.setLength(delta.length() - 1);
+        }
+        return delta.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.naammm.portfolioservice.service;
+
+import java.util.UUID;
+
+/**
+ * Everything ChatService needs to answer for a portfolio without touching the database.
+ * The system prompt is kept in three parts: the context in the middle is retrieved per
+ * question from {@code knowledge} and fitted to the per-request token budget.
+ *
+ * @param chatEnabled false when the owner switched the global chat toggle off
+ * @param preamble    identity rules, up to and including the context heading
+ * @param knowledge   BM25 index over the CV, project, skill and toolbox chunks
+ * @param guidelines  personality, toolbox sections and output format rules
+ * @param version     derived from the updatedAt stamps of the portfolio, personality and toolbox config
+ */
+public record CompiledPrompt(
+        UUID portfolioId,
+        String slug,
+        boolean chatEnabled,
+        String preamble,
+        Bm25Index knowledge,
+        String guidelines,
+        String version) {
+
+    public String systemPrompt(String context) {
+        return preamble + context + "\n\n" + guidelines;
+    }
+}
@@ -0,0 +1,197 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.dto.ai.CVExtractedData;
+import com.naammm.portfolioservice.model.Portfolio;
+import com.naammm.portfolioservice.model.Project;
+import com.naammm.portfolioservice.model.Skill;
+import com.naammm.portfolioservice.model.SkillCategory;
+import com.naammm.portfolioservice.repository.ProjectRepository;
+import com.naammm.portfolioservice.repository.SkillCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Applies the projects and skills extracted from a CV as a diff against the stored rows
+ * instead of deleting and re-inserting everything. Entries are matched by title (skills by
+ * name, ignoring case): matches are updated in place and keep their id and anything the
+ * owner added, such as project links; new entries are inserted and missing ones deleted.
+ *
+ * Nothing is flushed here. The writes go out together when the surrounding transaction
+ * commits, grouped into JDBC batches (hibernate.jdbc.batch_size, order_inserts/updates).
+ * Unchanged rows are not written at all.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CvContentMerger {
+
+    /** Row counts of one merge, for logging. */
+    public record Changes(int inserted, int updated, int deleted) {
+    }
+
+    private final ProjectRepository projectRepository;
+    private final SkillCategoryRepository skillCategoryRepository;
+
+    public Changes mergeProjects(Portfolio portfolio, List<CVExtractedData.ProjectData> extracted) {
+        Map<String, Deque<Project>> existing = byKey(
+                projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId()), Project::getTitle);
+
+        List<Project> inserts = new ArrayList<>();
+        int updated = 0;
+        int order = 0;
+        for (CVExtractedData.ProjectData data : extracted) {
+            String title = data.title() != null ? data.title() : "Unknown Project";
+            String category = data.category() != null ? data.category() : "Other";
+            String description = data.description() != null ? data.description() : "";
+            String date = data.date() != null ? data.date() : "";
+            List<String> tags = data.tags() != null ? data.tags() : Collections.emptyList();
+
+            Project project = take(existing, title);
+            if (project == null) {
+                inserts.add(Project.builder()
+                        .portfolio(portfolio)
+                        .title(title)
+                        .category(category)
+                        .description(description)
+                        .date(date)
+                        .tags(tags)
+                        .links(Collections.emptyList())
+                        .displayOrder(order++)
+                        .build());
+                continue;
+            }
+            // Managed entity: only fields that actually change make Hibernate issue an UPDATE
+            boolean changed = set(project.getTitle(), title, project::setTitle)
+                    | set(project.getCategory(), category, project::setCategory)
+                    | set(project.getDescription(), description, project::setDescription)
+                    | set(project.getDate(), date, project::setDate)
+                    | set(project.getTags(), tags, project::setTags)
+                    | set(project.getDisplayOrder(), order++, project::setDisplayOrder);
+            if (changed) {
+                updated++;
+            }
+        }
+
+        List<Project> deletes = remaining(existing);
+        projectRepository.saveAll(inserts);
+        projectRepository.deleteAll(deletes);
+        Changes changes = new Changes(inserts.size(), updated, deletes.size());
+        log.debug("Merged CV projects into portfolio {}: {}", portfolio.getId(), changes);
+        return changes;
+    }
+
+    public Changes mergeSkills(Portfolio portfolio, List<CVExtractedData.SkillCategoryData> extracted) {
+        Map<String, Deque<SkillCategory>> existing = byKey(
+                skillCategoryRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId()), SkillCategory::getTitle);
+
+        List<SkillCategory> inserts = new ArrayList<>();
+        int updated = 0;
+        int order = 0;
+        for (CVExtractedData.SkillCategoryData data : extracted) {
+            String title = data.title() != null ? data.title() : "Skills";
+            List<String> names = data.skills() != null ? data.skills() : Collections.emptyList();
+
+            SkillCategory category = take(existing, title);
+            if (category == null) {
+                category = SkillCategory.builder()
+                        .portfolio(portfolio)
+                        .title(title)
+                        .displayOrder(order++)
+                        .build();
+                mergeSkillNames(category, names);
+                inserts.add(category);
+                continue;
+            }
+            boolean changed = set(category.getTitle(), title, category::setTitle)
+                    | set(category.getDisplayOrder(), order++, category::setDisplayOrder)
+                    | mergeSkillNames(category, names);
+            if (changed) {
+                updated++;
+            }
+        }
+
+        List<SkillCategory> deletes = remaining(existing);
+        // Skills are cascaded from their category, so one saveAll covers both tables
+        skillCategoryRepository.saveAll(inserts);
+        skillCategoryRepository.deleteAll(deletes);
+        Changes changes = new Changes(inserts.size(), updated, deletes.size());
+        log.debug("Merged CV skill categories into portfolio {}: {}", portfolio.getId(), changes);
+        return changes;
+    }
+
+    /** Reconciles the skills of a category with the extracted names; returns whether anything changed. */
+    private static boolean mergeSkillNames(SkillCategory category, List<String> names) {
+        Map<String, Deque<Skill>> existing = byKey(category.getSkills(), Skill::getName);
+
+        List<Skill> merged = new ArrayList<>(names.size());
+        boolean changed = false;
+        int order = 0;
+        for (String name : names) {
+            Skill skill = take(existing, name);
+            if (skill == null) {
+                skill = Skill.builder()
+                        .skillCategory(category)
+                        .name(name)
+                        .build();
+                changed = true;
+            } else {
+                changed |= set(skill.getName(), name, skill::setName);
+            }
+            changed |= set(skill.getDisplayOrder(), order++, skill::setDisplayOrder);
+            merged.add(skill);
+        }
+        changed |= !remaining(existing).isEmpty();
+
+        if (changed) {
+            // Keep the managed collection instance; orphanRemoval deletes the skills left out
+            category.getSkills().clear();
+            category.getSkills().addAll(merged);
+        }
+        return changed;
+    }
+
+    private static <T> Map<String, Deque<T>> byKey(Collection<T> rows, Function<T, String> key) {
+        Map<String, Deque<T>> byKey = new LinkedHashMap<>();
+        for (T row : rows) {
+            byKey.computeIfAbsent(normalize(key.apply(row)), k -> new ArrayDeque<>()).add(row);
+        }
+        return byKey;
+    }
+
+    private static <T> T take(Map<String, Deque<T>> byKey, String key) {
+        Deque<T> candidates = byKey.get(normalize(key));
+        return candidates == null ? null : candidates.pollFirst();
+    }
+
+    private static <T> List<T> remaining(Map<String, Deque<T>> byKey) {
+        List<T> rows = new ArrayList<>();
+        byKey.values().forEach(rows::addAll);
+        return rows;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <V> boolean set(V current, V value, Consumer<V> setter) {
+        if (Objects.equals(current, value)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+}
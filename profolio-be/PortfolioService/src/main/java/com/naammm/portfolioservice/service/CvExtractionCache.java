@@ -0,0 +1,163 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naammm.portfolioservice.dto.ai.CVExtractedData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Remembers AI extraction results by content hash, so re-uploading a CV does not pay
+ * for the model call again.
+ *
+ * Two keys are kept: the SHA-256 of the uploaded bytes (an identical file skips parsing
+ * too) and the SHA-256 of the normalized text (the same CV exported again as a new file
+ * still skips the model). Results made with a different prompt version are ignored.
+ */
+@Component
+@Slf4j
+public class CvExtractionCache {
+
+    /** Text and extraction stored for an uploaded file. */
+    public record Hit(String textHash, String text, CVExtractedData data) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration retention;
+
+    public CvExtractionCache(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cv.extraction-cache.enabled:true}") boolean enabled,
+            @Value("${cv.extraction-cache.retention:90d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.retention = retention;
+    }
+
+    public static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /** Whitespace differences between two exports of the same document do not change the hash. */
+    static String textHash(String text) {
+        String normalized = text.replaceAll("\\s+", " ").trim();
+        return sha256(normalized.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Looks up a previously parsed and extracted file by the hash of its bytes. */
+    public Optional<Hit> findByFile(String fileHash) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<Hit> hit = jdbcTemplate.query("""
+                        SELECT e.text_hash, e.cv_text, e.extracted_data
+                        FROM cv_uploads u JOIN cv_extractions e ON e.text_hash = u.text_hash
+                        WHERE u.file_hash = ? AND e.prompt_version = ?
+                        """,
+                        (rs, rowNum) -> new Hit(rs.getString("text_hash"), rs.getString("cv_text"),
+                                read(rs.getString("extracted_data"))),
+                        fileHash, AICVExtractorService.PROMPT_VERSION)
+                .stream()
+                .findFirst()
+                .filter(h -> h.data() != null);
+        hit.ifPresent(h -> touch(h.textHash()));
+        record(hit.isPresent() ? "file-hit" : "file-miss");
+        return hit;
+    }
+
+    /** Looks up the extraction for a text that was already sent to the model. */
+    public Optional<CVExtractedData> findByText(String textHash) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<CVExtractedData> hit = jdbcTemplate.queryForList(
+                        "SELECT extracted_data FROM cv_extractions WHERE text_hash = ? AND prompt_version = ?",
+                        String.class, textHash, AICVExtractorService.PROMPT_VERSION)
+                .stream()
+                .findFirst()
+                .map(this::read);
+        hit.ifPresent(data -> touch(textHash));
+        record(hit.isPresent() ? "text-hit" : "text-miss");
+        return hit;
+    }
+
+    /**
+     * Stores an extraction under both hashes. Failures are only logged: the result has
+     * already been computed and the upload must not fail because it could not be cached.
+     */
+    public void save(String fileHash, String textHash, String text, CVExtractedData data) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("""
+                            INSERT INTO cv_extractions (text_hash, prompt_version, cv_text, extracted_data, created_at, last_used_at)
+                            VALUES (?, ?, ?, ?, now(), now())
+                            ON CONFLICT (text_hash) DO UPDATE SET prompt_version = EXCLUDED.prompt_version,
+                                extracted_data = EXCLUDED.extracted_data, last_used_at = now()
+                            """,
+                    textHash, AICVExtractorService.PROMPT_VERSION, text, objectMapper.writeValueAsString(data));
+            jdbcTemplate.update("""
+                            INSERT INTO cv_uploads (file_hash, text_hash) VALUES (?, ?)
+                            ON CONFLICT (file_hash) DO UPDATE SET text_hash = EXCLUDED.text_hash
+                            """,
+                    fileHash, textHash);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not store CV extraction {}: {}", textHash, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cv.extraction-cache.purge-interval-ms:86400000}")
+    public void purgeUnused() {
+        int purged = jdbcTemplate.update("DELETE FROM cv_extractions WHERE last_used_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (purged > 0) {
+            log.debug("Purged {} unused CV extractions", purged);
+        }
+    }
+
+    private void touch(String textHash) {
+        jdbcTemplate.update("UPDATE cv_extractions SET last_used_at = now() WHERE text_hash = ?", textHash);
+    }
+
+    private CVExtractedData read(String json) {
+        try {
+            return objectMapper.readValue(json, CVExtractedData.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable stored CV extraction: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void record(String result) {
+        Counter.builder("cv.extraction.cache")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,46 @@
+package com.naammm.portfolioservice.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One CV upload being turned into portfolio content in the background.
+ * The stage moves QUEUED → PARSING → EXTRACTING → PERSISTING and ends in COMPLETED or FAILED;
+ * the message explains a failure in words the owner can act on.
+ */
+public record CvIngestionJob(
+        UUID id,
+        UUID userId,
+        Stage stage,
+        String message,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    public enum Stage {
+        QUEUED(5),
+        PARSING(20),
+        EXTRACTING(50),
+        PERSISTING(85),
+        COMPLETED(100),
+        FAILED(100);
+
+        private final int progress;
+
+        Stage(int progress) {
+            this.progress = progress;
+        }
+
+        /** Rough completion percentage; extraction by the model dominates the total time. */
+        public int progress() {
+            return progress;
+        }
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    public CvIngestionJob withStage(Stage stage, String message) {
+        return new CvIngestionJob(id, userId, stage, message, createdAt, LocalDateTime.now());
+    }
+}
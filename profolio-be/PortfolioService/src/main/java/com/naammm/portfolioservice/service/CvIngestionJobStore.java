@@ -0,0 +1,99 @@
+package com.naammm.portfolioservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps CV ingestion jobs in Postgres so the status can be polled through any instance
+ * behind the gateway, not only the one running the job. Each job writes a handful of
+ * single-row autocommit updates, one per stage, and its instance refreshes a heartbeat
+ * for all of its jobs in one statement. Heartbeats use the database clock, so instance
+ * clocks do not have to agree.
+ */
+@Component
+@Slf4j
+public class CvIngestionJobStore {
+
+    private static final RowMapper<CvIngestionJob> ROW_MAPPER = (rs, rowNum) -> new CvIngestionJob(
+            rs.getObject("id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            CvIngestionJob.Stage.valueOf(rs.getString("stage")),
+            rs.getString("message"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+
+    public CvIngestionJobStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${cv.ingestion.retention:7d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+    }
+
+    public CvIngestionJob create(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        CvIngestionJob job = new CvIngestionJob(UUID.randomUUID(), userId, CvIngestionJob.Stage.QUEUED, null, now, now);
+        jdbcTemplate.update(
+                "INSERT INTO cv_ingestion_jobs (id, user_id, stage, message, created_at, updated_at, heartbeat_at) VALUES (?, ?, ?, ?, ?, ?, LOCALTIMESTAMP)",
+                job.id(), job.userId(), job.stage().name(), job.message(),
+                Timestamp.valueOf(job.createdAt()), Timestamp.valueOf(job.updatedAt()));
+        return job;
+    }
+
+    public void update(CvIngestionJob job) {
+        jdbcTemplate.update("UPDATE cv_ingestion_jobs SET stage = ?, message = ?, updated_at = ? WHERE id = ?",
+                job.stage().name(), job.message(), Timestamp.valueOf(job.updatedAt()), job.id());
+    }
+
+    /** Marks the given jobs as still owned by a live instance. */
+    public void heartbeat(Collection<UUID> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE cv_ingestion_jobs SET heartbeat_at = LOCALTIMESTAMP WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", jobIds.toArray())));
+    }
+
+    /**
+     * Returns the job; an unfinished one whose instance has not refreshed its heartbeat
+     * for {@code staleAfter} (it went down with the job queued or running) is returned
+     * as failed.
+     */
+    public Optional<CvIngestionJob> find(UUID jobId, Duration staleAfter) {
+        return jdbcTemplate.query("""
+                                SELECT *, heartbeat_at < LOCALTIMESTAMP - make_interval(secs => ?) AS abandoned
+                                FROM cv_ingestion_jobs WHERE id = ?
+                                """,
+                        (rs, rowNum) -> {
+                            CvIngestionJob job = ROW_MAPPER.mapRow(rs, rowNum);
+                            return !job.stage().isTerminal() && rs.getBoolean("abandoned")
+                                    ? job.withStage(CvIngestionJob.Stage.FAILED, "CV processing was interrupted, please upload it again")
+                                    : job;
+                        },
+                        (double) staleAfter.toSeconds(), jobId)
+                .stream()
+                .findFirst();
+    }
+
+    @Scheduled(fixedDelayString = "${cv.ingestion.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM cv_ingestion_jobs WHERE updated_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (purged > 0) {
+            log.debug("Purged {} old CV ingestion jobs", purged);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.dto.ai.CVExtractedData;
+import com.naammm.portfolioservice.exception.CvIngestionBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs CV uploads as background jobs: parse the document, extract structured data with
+ * the model, then write it to the portfolio. The upload request only reads the file and
+ * queues the job, so no request thread (or database connection) waits on the model.
+ * A CV seen before (same bytes or same text) reuses the stored extraction from
+ * {@link CvExtractionCache} instead of calling the model again.
+ *
+ * Jobs run on a small fixed pool with a bounded queue; when the queue is full the upload
+ * is refused with a retry hint instead of piling up behind a slow model.
+ */
+@Service
+@Slf4j
+public class CvIngestionService {
+
+    private final CVService cvService;
+    private final AICVExtractorService aiCVExtractorService;
+    private final PortfolioService portfolioService;
+    private final CvIngestionJobStore jobStore;
+    private final CvExtractionCache extractionCache;
+    private final MeterRegistry meterRegistry;
+    private final Duration staleAfter;
+    private final ThreadPoolExecutor executor;
+    // Queued and running jobs of this instance, kept alive by heartbeat()
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    public CvIngestionService(
+            CVService cvService,
+            AICVExtractorService aiCVExtractorService,
+            PortfolioService portfolioService,
+            CvIngestionJobStore jobStore,
+            CvExtractionCache extractionCache,
+            MeterRegistry meterRegistry,
+            @Value("${cv.ingestion.workers:2}") int workers,
+            @Value("${cv.ingestion.queue-capacity:20}") int queueCapacity,
+            @Value("${cv.ingestion.stale-after:2m}") Duration staleAfter) {
+        this.cvService = cvService;
+        this.aiCVExtractorService = aiCVExtractorService;
+        this.portfolioService = portfolioService;
+        this.jobStore = jobStore;
+        this.extractionCache = extractionCache;
+        this.meterRegistry = meterRegistry;
+        this.staleAfter = staleAfter;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "cv-ingestion-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("cv.ingestion.queued", executor, e -> e.getQueue().size())
+                .description("CV ingestion jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("cv.ingestion.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("CV ingestion jobs being processed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates the upload and queues it. The file content is read here because the
+     * multipart temp file is deleted as soon as the request completes.
+     */
+    public CvIngestionJob submit(UUID userId, MultipartFile file) throws IOException {
+        if (!cvService.isSupportedFormat(file)) {
+            throw new IllegalArgumentException("Unsupported file format. Please upload PDF or DOCX.");
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        byte[] content = file.getBytes();
+
+        CvIngestionJob job = jobStore.create(userId);
+        inFlight.add(job.id());
+        try {
+            executor.execute(() -> run(job, content));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job.id());
+            jobStore.update(job.withStage(CvIngestionJob.Stage.FAILED, "Too many CVs are being processed right now"));
+            outcome("rejected");
+            throw new CvIngestionBusyException("Too many CVs are being processed right now, please retry in a minute");
+        }
+        log.info("Queued CV ingestion job {} for user {} ({} bytes)", job.id(), userId, content.length);
+        return job;
+    }
+
+    /**
+     * Returns the job if it belongs to the user. A job whose instance went down while it
+     * was queued or running is reported as failed so clients stop polling; a job that is
+     * merely waiting behind a long queue is not.
+     */
+    public Optional<CvIngestionJob> find(UUID userId, UUID jobId) {
+        return jobStore.find(jobId, staleAfter)
+                .filter(job -> job.userId().equals(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${cv.ingestion.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        try {
+            jobStore.heartbeat(Set.copyOf(inFlight));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh CV ingestion heartbeats: {}", e.getMessage());
+        }
+    }
+
+    void run(CvIngestionJob queued, byte[] content) {
+        CvIngestionJob job = queued;
+        try {
+            String fileHash = CvExtractionCache.sha256(content);
+            Optional<CvExtractionCache.Hit> cached = extractionCache.findByFile(fileHash);
+
+            String text;
+            CVExtractedData extractedData;
+            if (cached.isPresent()) {
+                // Same file as before: reuse its text and extraction, skip Tika and the model
+                text = cached.get().text();
+                extractedData = cached.get().data();
+                log.info("CV ingestion job {} reuses the extraction of an identical file", job.id());
+            } else {
+                job = advance(job, CvIngestionJob.Stage.PARSING);
+                text = timed(CvIngestionJob.Stage.PARSING, () -> cvService.extractText(content));
+                if (text == null || text.isBlank()) {
+                    throw new IllegalArgumentException("No text could be read from the CV");
+                }
+
+                String textHash = CvExtractionCache.textHash(text);
+                Optional<CVExtractedData> sameText = extractionCache.findByText(textHash);
+                if (sameText.isPresent()) {
+                    extractedData = sameText.get();
+                } else {
+                    job = advance(job, CvIngestionJob.Stage.EXTRACTING);
+                    extractedData = timed(CvIngestionJob.Stage.EXTRACTING, () -> aiCVExtractorService.extract(text));
+                }
+                extractionCache.save(fileHash, textHash, text, extractedData);
+            }
+
+            job = advance(job, CvIngestionJob.Stage.PERSISTING);
+            timed(CvIngestionJob.Stage.PERSISTING, () -> {
+                portfolioService.applyCvExtraction(queued.userId(), text, extractedData);
+                return null;
+            });
+
+            jobStore.update(job.withStage(CvIngestionJob.Stage.COMPLETED,
+                    "CV successfully processed and added to your personality context."));
+            outcome("completed");
+            log.info("CV ingestion job {} completed", job.id());
+        } catch (IllegalArgumentException e) {
+            fail(job, e.getMessage(), e);
+        } catch (IOException e) {
+            fail(job, "An error occurred while reading the CV file: " + e.getMessage(), e);
+        } catch (Exception e) {
+            // Covers AI extractor failures, JSON parse errors, etc.
+            fail(job, "CV was uploaded but AI processing failed: " + e.getMessage(), e);
+        } finally {
+            inFlight.remove(queued.id());
+        }
+    }
+
+    private CvIngestionJob advance(CvIngestionJob job, CvIngestionJob.Stage stage) {
+        CvIngestionJob next = job.withStage(stage, null);
+        jobStore.update(next);
+        return next;
+    }
+
+    private void fail(CvIngestionJob job, String message, Exception cause) {
+        log.warn("CV ingestion job {} failed while {}: {}", job.id(), job.stage(), cause.getMessage());
+        try {
+            jobStore.update(job.withStage(CvIngestionJob.Stage.FAILED, message));
+        } catch (RuntimeException e) {
+            log.error("Could not record failure of CV ingestion job {}", job.id(), e);
+        }
+        outcome("failed");
+    }
+
+    private <T> T timed(CvIngestionJob.Stage stage, StageWork<T> work) throws Exception {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return work.run();
+        } finally {
+            sample.stop(Timer.builder("cv.ingestion.stage")
+                    .description("Time spent in each CV ingestion stage")
+                    .tag("stage", stage.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    private void outcome(String outcome) {
+        Counter.builder("cv.ingestion.jobs")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @FunctionalInterface
+    private interface StageWork<T> {
+        T run() throws Exception;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
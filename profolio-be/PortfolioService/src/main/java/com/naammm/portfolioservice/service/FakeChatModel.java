@@ -0,0 +1,138 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for Gemini under the {@code loadtest} profile. Replies follow the chat JSON
+ * schema and are timed like a real provider: a log-normal time to first token, then a
+ * steady token rate, with a configurable share of failed calls.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class FakeChatModel implements ChatModel {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int TOKENS_PER_CHUNK = 5;
+    private static final String FILLER = "I have shipped production systems end to end and enjoy turning rough ideas into reliable products. ";
+
+    private final ObjectMapper objectMapper;
+    private final double medianMillis;
+    private final double sigma;
+    private final double tokensPerSecond;
+    private final int replyTokens;
+    private final double errorRate;
+
+    public FakeChatModel(
+            ObjectMapper objectMapper,
+            @Value("${loadtest.fake-model.median-latency:800ms}") Duration medianLatency,
+            @Value("${loadtest.fake-model.p99-latency:4s}") Duration p99Latency,
+            @Value("${loadtest.fake-model.tokens-per-second:80}") double tokensPerSecond,
+            @Value("${loadtest.fake-model.reply-tokens:150}") int replyTokens,
+            @Value("${loadtest.fake-model.error-rate:0.01}") double errorRate) {
+        this.objectMapper = objectMapper;
+        this.medianMillis = medianLatency.toMillis();
+        // z(0.99) = 2.326: sigma such that the 99th percentile lands on p99Latency
+        this.sigma = Math.log((double) p99Latency.toMillis() / medianLatency.toMillis()) / 2.326;
+        this.tokensPerSecond = tokensPerSecond;
+        this.replyTokens = replyTokens;
+        this.errorRate = errorRate;
+        log.warn("FakeChatModel active: median {}ms, p99 {}ms, {} tokens/s, error rate {}",
+                medianLatency.toMillis(), p99Latency.toMillis(), tokensPerSecond, errorRate);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Duration firstToken = sampleFirstTokenLatency();
+        try {
+            Thread.sleep(firstToken.plus(generationTime(replyTokens)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+        if (shouldFail()) {
+            throw new IllegalStateException("Simulated provider error");
+        }
+        return responseOf(reply(prompt));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String reply = reply(prompt);
+        boolean fail = shouldFail();
+        int chunkChars = TOKENS_PER_CHUNK * CHARS_PER_TOKEN;
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < reply.length(); i += chunkChars) {
+            chunks.add(reply.substring(i, Math.min(reply.length(), i + chunkChars)));
+        }
+
+        Flux<ChatResponse> tokens = Flux.fromIterable(chunks)
+                .delayElements(generationTime(TOKENS_PER_CHUNK))
+                .map(FakeChatModel::responseOf);
+        return Mono.delay(sampleFirstTokenLatency())
+                .flatMapMany(tick -> fail
+                        ? Flux.error(new IllegalStateException("Simulated provider error"))
+                        : tokens);
+    }
+
+    private String reply(Prompt prompt) {
+        String question = prompt.getUserMessage() != null ? prompt.getUserMessage().getText() : "";
+        StringBuilder text = new StringBuilder();
+        while (text.length() < replyTokens * CHARS_PER_TOKEN) {
+            text.append(FILLER);
+        }
+
+        Map<String, Object> card = new LinkedHashMap<>();
+        card.put("section_type", "GENERAL");
+        card.put("title", "Load test");
+        card.put("text", text.substring(0, replyTokens * CHARS_PER_TOKEN).trim());
+        card.put("tags", List.of("fake", "loadtest"));
+
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("type", "GENERAL");
+        reply.put("lead", "You asked: " + question);
+        reply.put("cards", List.of(card));
+        reply.put("followUp", "Anything else you'd like to know?");
+        try {
+            return objectMapper.writeValueAsString(reply);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Duration sampleFirstTokenLatency() {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Duration.ofMillis((long) (medianMillis * Math.exp(sigma * gaussian)));
+    }
+
+    private Duration generationTime(int tokens) {
+        return Duration.ofMillis((long) (tokens * 1000 / tokensPerSecond));
+    }
+
+    private boolean shouldFail() {
+        return ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private static ChatResponse responseOf(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,94 @@
+package com.naammm.portfolioservice.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rows of file_blobs: one per distinct uploaded content, keyed by its SHA-256. A row is
+ * only written once its object is in storage, so finding one means the upload can be
+ * skipped. Timestamps use the database clock.
+ */
+@Component
+public class FileBlobStore {
+
+    public record Blob(String digest, String objectKey) {
+    }
+
+    /** Every column that can hold the URL of an uploaded file. */
+    private static final String REFERENCES = """
+            SELECT avatar_url AS url FROM portfolios WHERE avatar_url IS NOT NULL
+            UNION ALL SELECT me_photo_url FROM toolbox_config WHERE me_photo_url IS NOT NULL
+            UNION ALL SELECT unnest(hobbies_photos) FROM toolbox_config
+            UNION ALL SELECT resume_file_url FROM toolbox_config WHERE resume_file_url IS NOT NULL
+            UNION ALL SELECT video_url FROM toolbox_config WHERE video_url IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FileBlobStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records another upload of content that may already be stored. Touching the row
+     * restarts its grace period, so a fresh upload is never swept before the owner had a
+     * chance to save its URL.
+     *
+     * @return true if the content is stored already; rows only exist once the object does
+     */
+    public boolean touch(String digest) {
+        return jdbcTemplate.update("UPDATE file_blobs SET last_uploaded_at = LOCALTIMESTAMP WHERE digest = ?", digest) == 1;
+    }
+
+    /**
+     * Registers content after its object (and image variants) has been written. A
+     * concurrent upload of the same bytes may have registered it first, which is fine:
+     * both wrote the same object.
+     *
+     * @return true if this call created the row
+     */
+    public boolean recordStored(String digest, String objectKey, String contentType, long size) {
+        return jdbcTemplate.update("""
+                        INSERT INTO file_blobs (digest, object_key, content_type, size, created_at, last_uploaded_at)
+                        VALUES (?, ?, ?, ?, LOCALTIMESTAMP, LOCALTIMESTAMP)
+                        ON CONFLICT (digest) DO NOTHING
+                        """,
+                digest, objectKey, contentType, size) == 1;
+    }
+
+    /** Recounts how many stored URLs point at each blob (or one of its image variants). */
+    public int recountReferences() {
+        return jdbcTemplate.update("WITH refs AS (" + REFERENCES + """
+                )
+                UPDATE file_blobs b SET ref_count = (
+                    SELECT count(*) FROM refs WHERE position('/' || b.object_key IN refs.url) > 0
+                )
+                """);
+    }
+
+    /** Unreferenced blobs nobody uploaded within the grace period, oldest first. */
+    public List<Blob> findOrphans(Duration gracePeriod, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT digest, object_key FROM file_blobs
+                        WHERE ref_count = 0 AND last_uploaded_at < LOCALTIMESTAMP - make_interval(secs => ?)
+                        ORDER BY last_uploaded_at LIMIT ?
+                        """,
+                (rs, rowNum) -> new Blob(rs.getString("digest"), rs.getString("object_key")),
+                (double) gracePeriod.toSeconds(), limit);
+    }
+
+    /**
+     * Deletes the row only if it is still an orphan and was not uploaded again within the
+     * grace period; returns whether it was deleted.
+     */
+    public boolean deleteIfOrphan(String digest, Duration gracePeriod) {
+        return jdbcTemplate.update("""
+                        DELETE FROM file_blobs
+                        WHERE digest = ? AND ref_count = 0 AND last_uploaded_at < LOCALTIMESTAMP - make_interval(secs => ?)
+                        """,
+                digest, (double) gracePeriod.toSeconds()) == 1;
+    }
+}
@@ -1,70 +1,90 @@
 package com.naammm.portfolioservice.service;
 
+import com.naammm.portfolioservice.dto.UploadedFile;
+import com.naammm.portfolioservice.exception.FileUploadBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.*;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class FileService {
 
+    private static final Pattern VARIANT_NAME = Pattern.compile("\\.(\\d+)w\\.(webp|jpg)");
+
     private final MinioClient minioClient;
+    private final MultipartUploader multipartUploader;
+    private final ImageDerivativeService imageDerivatives;
+    private final FileBlobStore fileBlobStore;
+    private final MeterRegistry meterRegistry;
+    private final StorageBootstrap storage;
     private final String bucketName;
     private final String publicBaseUrl;
 
     public FileService(
+            MinioClient minioClient,
+            MultipartUploader multipartUploader,
+            ImageDerivativeService imageDerivatives,
+            FileBlobStore fileBlobStore,
+            MeterRegistry meterRegistry,
+            StorageBootstrap storage,
             @Value("${minio.endpoint}") String endpoint,
-            @Value("${minio.accessKey}") String accessKey,
-            @Value("${minio.secretKey}") String secretKey,
             @Value("${minio.bucketName}") String bucketName,
             @Value("${minio.publicUrl:}") String publicUrl) {
 
+        this.minioClient = minioClient;
+        this.multipartUploader = multipartUploader;
+        this.imageDerivatives = imageDerivatives;
+        this.fileBlobStore = fileBlobStore;
+        this.meterRegistry = meterRegistry;
+        this.storage = storage;
         this.bucketName = bucketName;
         // Public URL for browser access: use explicit config, or fall back to endpoint
         this.publicBaseUrl = (publicUrl != null && !publicUrl.isBlank()) ? publicUrl : endpoint;
-        this.minioClient = MinioClient.builder()
-                .endpoint(endpoint)
-                .credentials(accessKey, secretKey)
-                .build();
-
-        // Initialize bucket
-        try {
-            boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
-            if (!found) {
-                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
-                String policy = """
-                        {
-                          "Version": "2012-10-17",
-                          "Statement": [
-                            {
-                              "Effect": "Allow",
-                              "Principal": "*",
-                              "Action": ["s3:GetObject"],
-                              "Resource": ["arn:aws:s3:::%s/*"]
-                            }
-                          ]
-                        }
-                        """.formatted(bucketName);
-                minioClient.setBucketPolicy(
-                        SetBucketPolicyArgs.builder().bucket(bucketName).config(policy).build());
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("Could not initialize MinIO bucket", e);
-        }
     }
 
-    public String storeFile(MultipartFile file) {
-        String originalFileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-        String fileName = UUID.randomUUID().toString() + "_" + originalFileName.replaceAll("[^a-zA-Z0-9.\\-]", "_");
+    /**
+     * Stores an upload under the SHA-256 of its content. The multipart file is already on
+     * local disk or in memory, so it is hashed before anything is sent: content that is
+     * stored already is not uploaded again, and its image variants are reused.
+     */
+    public UploadedFile storeFile(MultipartFile file) {
+        storage.requireReady();
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+        String digest;
+        try (InputStream is = file.getInputStream()) {
+            digest = sha256(is);
+        } catch (Exception ex) {
+            throw new RuntimeException("Could not read file " + file.getOriginalFilename() + ". Please try again!", ex);
+        }
+        String fileName = blobKey(digest);
 
         try {
-            if (fileName.contains("..")) {
-                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+            if (fileBlobStore.touch(digest)) {
+                deduplicated(file.getSize());
+                return describeExisting(fileName, file.getOriginalFilename());
             }
 
             try (InputStream is = file.getInputStream()) {
@@ -73,17 +93,201 @@ public class FileService {
                                 .bucket(bucketName)
                                 .object(fileName)
                                 .stream(is, file.getSize(), -1)
-                                .contentType(file.getContentType() != null ? file.getContentType() : "application/octet-stream")
+                                .contentType(contentType)
                                 .build()
                 );
             }
-
-            // Generate browser-accessible URL using configured public base
-            String baseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl : publicBaseUrl + "/";
-            return baseUrl + bucketName + "/" + fileName;
+            UploadedFile uploaded = imageDerivatives.accepts(contentType, file.getSize())
+                    ? withDerivatives(fileName, file.getOriginalFilename(), file.getBytes())
+                    : UploadedFile.of(publicUrl(fileName), file.getOriginalFilename());
+            // Registered last: an upload of the same bytes only reuses what is fully written
+            fileBlobStore.recordStored(digest, fileName, contentType, file.getSize());
+            count("new");
+            return uploaded;
 
         } catch (Exception ex) {
             throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
         }
     }
+
+    /**
+     * Stores a raw request body as it arrives, without spooling it to memory or a temp file
+     * first. Large bodies become a parallel multipart upload (see {@link MultipartUploader}).
+     * The body is hashed while it streams to a temporary object, which is then either
+     * dropped (the content is stored already) or copied server-side to its digest key.
+     */
+    public UploadedFile storeStream(InputStream body, String originalFileName, String contentType) {
+        storage.requireReady();
+        String type = contentType != null ? contentType : "application/octet-stream";
+        String tempName = "tmp/" + UUID.randomUUID();
+
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long size = multipartUploader.upload(bucketName, tempName, type, new DigestInputStream(body, sha256));
+            return promote(tempName, HexFormat.of().formatHex(sha256.digest()), originalFileName, type, size);
+        } catch (IllegalArgumentException | FileUploadBusyException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Replaces an object stored under a temporary name by its digest key: dropped when the
+     * content is stored already, otherwise copied server-side (no bytes pass through here).
+     */
+    private UploadedFile promote(String stagedName, String digest, String originalFileName, String contentType, long size)
+            throws Exception {
+        String fileName = blobKey(digest);
+        if (fileBlobStore.touch(digest)) {
+            removeQuietly(stagedName);
+            deduplicated(size);
+            return describeExisting(fileName, originalFileName);
+        }
+        try {
+            minioClient.copyObject(CopyObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .source(CopySource.builder().bucket(bucketName).object(stagedName).build())
+                    .build());
+        } finally {
+            removeQuietly(stagedName);
+        }
+        UploadedFile uploaded = describe(fileName, originalFileName, contentType, size);
+        fileBlobStore.recordStored(digest, fileName, contentType, size);
+        count("new");
+        return uploaded;
+    }
+
+    /**
+     * Describes an object that is already in storage, rendering image variants from it
+     * when it is a photo. Used when the bytes did not pass through this service.
+     */
+    public UploadedFile describe(String fileName, String originalFileName, String contentType, long size) throws Exception {
+        if (!imageDerivatives.accepts(contentType, size)) {
+            return UploadedFile.of(publicUrl(fileName), originalFileName);
+        }
+        byte[] content;
+        try (InputStream is = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(fileName).build())) {
+            content = is.readAllBytes();
+        }
+        return withDerivatives(fileName, originalFileName, content);
+    }
+
+    /**
+     * Renders resized variants of an image and stores them next to the original as
+     * {@code <name>.<width>w.<ext>}. Variants never change, so they are cached for a year.
+     */
+    private UploadedFile withDerivatives(String fileName, String originalFileName, byte[] content) throws Exception {
+        Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+        for (ImageDerivativeService.Derivative derivative : imageDerivatives.render(content)) {
+            String variantName = fileName + "." + derivative.width() + "w." + derivative.extension();
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(variantName)
+                            .stream(new ByteArrayInputStream(derivative.body()), derivative.body().length, -1)
+                            .contentType(derivative.contentType())
+                            .headers(Map.of("Cache-Control", "public, max-age=31536000, immutable"))
+                            .build()
+            );
+            variants.computeIfAbsent(derivative.contentType(), type -> new LinkedHashMap<>())
+                    .put(derivative.width() + "w", publicUrl(variantName));
+        }
+
+        return new UploadedFile(publicUrl(fileName), originalFileName, variants, srcset(variants));
+    }
+
+    // Prefer WebP for the ready-made srcset; JPEG is there for <picture> fallbacks
+    private static String srcset(Map<String, Map<String, String>> variants) {
+        Map<String, String> preferred = variants.getOrDefault(ImageDerivativeService.WEBP,
+                variants.getOrDefault(ImageDerivativeService.JPEG, Map.of()));
+        return preferred.entrySet().stream()
+                .map(entry -> entry.getValue() + " " + entry.getKey())
+                .collect(Collectors.joining(", "));
+    }
+
+    /** Content seen before: its variants, if any, were rendered by the first upload. */
+    UploadedFile describeExisting(String fileName, String originalFileName) {
+        Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+        for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(fileName + ".")
+                .build())) {
+            String variantName;
+            try {
+                variantName = result.get().objectName();
+            } catch (Exception ex) {
+                throw new RuntimeException("Could not list variants of " + fileName, ex);
+            }
+            Matcher matcher = VARIANT_NAME.matcher(variantName.substring(fileName.length()));
+            if (matcher.matches()) {
+                String type = matcher.group(2).equals("webp") ? ImageDerivativeService.WEBP : ImageDerivativeService.JPEG;
+                variants.computeIfAbsent(type, t -> new TreeMap<>(Comparator.comparingInt(FileService::width)))
+                        .put(matcher.group(1) + "w", publicUrl(variantName));
+            }
+        }
+        return new UploadedFile(publicUrl(fileName), originalFileName, variants, srcset(variants));
+    }
+
+    /** Every upload of the same bytes shares one object. */
+    static String blobKey(String digest) {
+        return "cas/" + digest;
+    }
+
+    static String sha256(InputStream in) throws Exception {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        try (DigestInputStream digesting = new DigestInputStream(in, sha256)) {
+            digesting.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private static int width(String label) {
+        return Integer.parseInt(label.substring(0, label.length() - 1));
+    }
+
+    private void removeQuietly(String objectName) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectName).build());
+        } catch (Exception ex) {
+            log.warn("Could not remove object {}: {}", objectName, ex.getMessage());
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("files.blobs.uploads")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void deduplicated(long size) {
+        count("duplicate");
+        Counter.builder("files.blobs.bytes.deduplicated")
+                .description("Bytes not written to storage because the content was already there")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .increment(size);
+    }
+
+    String objectNameFor(String originalFileName) {
+        String cleaned = StringUtils.cleanPath(Objects.requireNonNull(originalFileName));
+        String fileName = UUID.randomUUID().toString() + "_" + cleaned.replaceAll("[^a-zA-Z0-9.\\-]", "_");
+        if (fileName.contains("..")) {
+            throw new RuntimeException("Sorry! Filename contains invalid path sequence " + fileName);
+        }
+        return fileName;
+    }
+
+    // Generate browser-accessible URL using configured public base
+    String publicUrl(String fileName) {
+        return bucketUrl() + "/" + fileName;
+    }
+
+    // Browser-accessible URL of the bucket itself, where presigned POST uploads go
+    String bucketUrl() {
+        String baseUrl = publicBaseUrl.endsWith("/") ? publicBaseUrl : publicBaseUrl + "/";
+        return baseUrl + bucketName;
+    }
 }
@@ -0,0 +1,89 @@
+package com.naammm.portfolioservice.service;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The chat model as every caller should use it: behind the circuit breaker, then the
+ * bulkhead. {@link #call} and {@link #stream} throw {@link CallNotPermittedException}
+ * right away while the circuit is open.
+ */
+@Component
+@RequiredArgsConstructor
+public class GuardedChatModel {
+
+    private final ChatModel chatModel;
+    private final LlmExecutor llmExecutor;
+    private final CircuitBreaker chatModelCircuitBreaker;
+
+    public String call(Prompt prompt) {
+        return chatModelCircuitBreaker.executeSupplier(() ->
+                llmExecutor.call(() -> textOf(chatModel.call(prompt))));
+    }
+
+    /**
+     * For background work such as answer warm-up: skipped (empty) while the circuit is not
+     * closed or calls are waiting for a bulkhead slot (see {@link LlmExecutor#callIfIdle}),
+     * and never recorded by the breaker, so warm-up failures cannot open it for visitors.
+     */
+    public Optional<String> callInBackground(Prompt prompt) {
+        if (chatModelCircuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            return Optional.empty();
+        }
+        return llmExecutor.callIfIdle(() -> textOf(chatModel.call(prompt)));
+    }
+
+    /**
+     * Streams the reply text. For the breaker, a stream counts as a success once its first
+     * chunk arrives, so long replies are not mistaken for slow calls.
+     */
+    public Flux<String> stream(Prompt prompt) {
+        chatModelCircuitBreaker.acquirePermission();
+        long start = System.nanoTime();
+        AtomicBoolean recorded = new AtomicBoolean();
+
+        Flux<ChatResponse> responses;
+        try {
+            responses = llmExecutor.stream(() -> chatModel.stream(prompt));
+        } catch (RuntimeException e) {
+            chatModelCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        }
+        return responses
+                .map(GuardedChatModel::textOf)
+                .filter(chunk -> !chunk.isEmpty())
+                .doOnNext(chunk -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        chatModelCircuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                })
+                .doOnError(e -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        chatModelCircuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                    }
+                })
+                .doFinally(signal -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        chatModelCircuitBreaker.releasePermission();
+                    }
+                });
+    }
+
+    private static String textOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text != null ? text : "";
+    }
+}
@@ -0,0 +1,376 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders resized copies of uploaded photos (avatars, "me" and hobby photos) so public
+ * pages can load an image sized for the screen instead of the camera original.
+ *
+ * Each configured width narrower than the original is rendered as WebP and JPEG. WebP
+ * needs the webp-imageio native library; where it cannot be loaded (e.g. musl-based
+ * images) only JPEG is produced. Rendering runs on a small bounded pool with a deadline;
+ * when it is saturated or an image cannot be decoded, the upload simply has no variants.
+ * Camera JPEGs are turned upright first according to their EXIF orientation, which
+ * ImageIO ignores.
+ */
+@Component
+@Slf4j
+public class ImageDerivativeService {
+
+    public static final String WEBP = "image/webp";
+    public static final String JPEG = "image/jpeg";
+
+    private static final Set<String> SOURCE_TYPES = Set.of("image/jpeg", "image/png", "image/webp", "image/bmp");
+
+    /** One rendered variant. */
+    public record Derivative(int width, String contentType, byte[] body) {
+
+        public String extension() {
+            return WEBP.equals(contentType) ? "webp" : "jpg";
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final List<Integer> widths;
+    private final float jpegQuality;
+    private final float webpQuality;
+    private final Duration timeout;
+    private final long maxPixels;
+    private final long maxSourceSize;
+    private final boolean webpAvailable;
+    private final ThreadPoolExecutor executor;
+
+    public ImageDerivativeService(
+            MeterRegistry meterRegistry,
+            @Value("${files.images.widths:320,640,1280}") List<Integer> widths,
+            @Value("${files.images.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${files.images.webp-quality:0.8}") float webpQuality,
+            @Value("${files.images.threads:2}") int threads,
+            @Value("${files.images.queue-capacity:16}") int queueCapacity,
+            @Value("${files.images.timeout:20s}") Duration timeout,
+            @Value("${files.images.max-pixels:40000000}") long maxPixels,
+            @Value("${files.images.max-source-size:20MB}") DataSize maxSourceSize) {
+        this.meterRegistry = meterRegistry;
+        this.widths = widths.stream().sorted().distinct().toList();
+        this.jpegQuality = jpegQuality;
+        this.webpQuality = webpQuality;
+        this.timeout = timeout;
+        this.maxPixels = maxPixels;
+        this.maxSourceSize = maxSourceSize.toBytes();
+        this.webpAvailable = probeWebp();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("files.images.queued", executor, e -> e.getQueue().size())
+                .description("Images waiting to be resized")
+                .register(meterRegistry);
+    }
+
+    /** Whether an upload of this type and size gets resized variants. */
+    public boolean accepts(String contentType, long size) {
+        return contentType != null
+                && SOURCE_TYPES.contains(contentType.toLowerCase(Locale.ROOT))
+                && size > 0 && size <= maxSourceSize;
+    }
+
+    /**
+     * Renders every variant of the image on the worker pool and waits for them.
+     * Never throws: an image that cannot be rendered in time yields no variants.
+     */
+    public List<Derivative> render(byte[] source) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        Future<List<Derivative>> pending = null;
+        try {
+            pending = executor.submit(() -> renderNow(source));
+            List<Derivative> derivatives = pending.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            outcome = derivatives.isEmpty() ? "skipped" : "success";
+            derivatives.forEach(d -> Counter.builder("files.images.derivatives")
+                    .tag("format", d.extension())
+                    .register(meterRegistry)
+                    .increment());
+            return derivatives;
+        } catch (RejectedExecutionException e) {
+            outcome = "rejected";
+            log.warn("Image worker pool is saturated, storing the upload without variants");
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            pending.cancel(true);
+            log.warn("Resizing a {} byte image timed out after {}", source.length, timeout);
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Could not render image variants: {}", e.getCause().getMessage());
+        } finally {
+            sample.stop(Timer.builder("files.images.render")
+                    .description("Time to render all variants of one image")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        return List.of();
+    }
+
+    List<Derivative> renderNow(byte[] source) throws IOException {
+        BufferedImage image = orient(decode(source), exifOrientation(source));
+        List<Derivative> derivatives = new ArrayList<>();
+        for (int width : widths) {
+            if (width >= image.getWidth()) {
+                break;
+            }
+            BufferedImage scaled = resize(image, width);
+            if (webpAvailable) {
+                derivatives.add(new Derivative(width, WEBP, encode(scaled, WEBP, webpQuality)));
+            }
+            derivatives.add(new Derivative(width, JPEG, encode(scaled, JPEG, jpegQuality)));
+        }
+        return derivatives;
+    }
+
+    /** Reads the dimensions first, so a small file declaring a huge canvas is never decoded. */
+    private BufferedImage decode(byte[] source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image is too large to resize (" + pixels + " pixels)");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reads the EXIF Orientation tag (1-8) of a JPEG without decoding it; 1 (upright)
+     * when there is none or the data is not a JPEG.
+     */
+    static int exifOrientation(byte[] data) {
+        if (data.length < 4 || (data[0] & 0xFF) != 0xFF || (data[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int pos = 2;
+        while (pos + 4 <= data.length && (data[pos] & 0xFF) == 0xFF) {
+            int marker = data[pos + 1] & 0xFF;
+            if (marker == 0xDA || marker == 0xD9) {
+                // Image data starts: metadata segments are all before it
+                return 1;
+            }
+            int length = readShort(data, pos + 2, true);
+            int segmentEnd = Math.min(data.length, pos + 2 + length);
+            if (marker == 0xE1 && isExifHeader(data, pos + 4, segmentEnd)) {
+                return tiffOrientation(data, pos + 10, segmentEnd);
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static boolean isExifHeader(byte[] data, int pos, int end) {
+        byte[] header = {'E', 'x', 'i', 'f', 0, 0};
+        if (pos + header.length > end) {
+            return false;
+        }
+        for (int i = 0; i < header.length; i++) {
+            if (data[pos + i] != header[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int tiffOrientation(byte[] data, int start, int end) {
+        if (start + 8 > end) {
+            return 1;
+        }
+        boolean bigEndian = data[start] == 'M';
+        long ifd = start + readInt(data, start + 4, bigEndian);
+        if (ifd + 2 > end) {
+            return 1;
+        }
+        int entries = readShort(data, (int) ifd, bigEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + 12 * i;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readShort(data, entry, bigEndian) == 0x0112) {
+                int orientation = readShort(data, entry + 8, bigEndian);
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] data, int pos, boolean bigEndian) {
+        int a = data[pos] & 0xFF;
+        int b = data[pos + 1] & 0xFF;
+        return bigEndian ? (a << 8) | b : (b << 8) | a;
+    }
+
+    private static long readInt(byte[] data, int pos, boolean bigEndian) {
+        long high = readShort(data, bigEndian ? pos : pos + 2, bigEndian);
+        long low = readShort(data, bigEndian ? pos + 2 : pos, bigEndian);
+        return (high << 16) | low;
+    }
+
+    /** Applies an EXIF orientation, so the image is upright as the camera meant it. */
+    static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // mirrored
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // upside down
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // mirrored upside down
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // turned 90 degrees clockwise to view
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // transversed
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // turned 90 degrees counter-clockwise to view
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        boolean swapped = orientation >= 5;
+        BufferedImage target = new BufferedImage(swapped ? h : w, swapped ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Scales down in steps of at most half, then once more to the exact width; a single
+     * bicubic pass from a large original skips pixels and looks jagged.
+     */
+    static BufferedImage resize(BufferedImage source, int width) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = currentWidth == width ? height : Math.max(height, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight);
+        } while (currentWidth > width);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        // Opaque RGB: JPEG has no alpha, and transparent areas become white rather than black
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encode(BufferedImage image, String contentType, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(contentType);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + contentType);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    param.setCompressionType(lossyType(types));
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String lossyType(String[] types) {
+        for (String type : types) {
+            if (type.equalsIgnoreCase("lossy")) {
+                return type;
+            }
+        }
+        return types[0];
+    }
+
+    private static boolean probeWebp() {
+        try {
+            encode(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB), WEBP, 0.8f);
+            return true;
+        } catch (IOException | RuntimeException | LinkageError e) {
+            log.info("WebP encoding unavailable ({}); image variants are JPEG only", e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+package com.naammm.portfolioservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, idle-expiring session store local to this instance.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.session.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryChatSessionStore implements ChatSessionStore {
+
+    private final Cache<String, ChatSession> sessions;
+
+    public InMemoryChatSessionStore(
+            MeterRegistry meterRegistry,
+            @Value("${chat.session.maximum-sessions:50000}") long maximumSessions,
+            @Value("${chat.session.time-to-idle:30m}") Duration timeToIdle) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maximumSessions)
+                .expireAfterAccess(timeToIdle)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sessions, "chat.sessions");
+    }
+
+    @Override
+    public Optional<ChatSession> find(String sessionId) {
+        return Optional.ofNullable(sessions.getIfPresent(sessionId));
+    }
+
+    @Override
+    public void saveTurn(ChatSession session, UnaryOperator<ChatSession> turn) {
+        // Atomic per session; compaction is cheap and never calls the model
+        sessions.asMap().compute(session.id(), (id, stored) -> turn.apply(stored != null ? stored : session));
+    }
+}
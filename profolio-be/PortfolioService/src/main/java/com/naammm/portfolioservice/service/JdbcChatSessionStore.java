@@ -0,0 +1,152 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Session store backed by Postgres, so sessions survive restarts and any instance behind
+ * the gateway can continue a conversation.
+ *
+ * Every turn reads the session from the table rather than from a local copy: with
+ * round-robin routing another instance may have saved newer turns, and writing back a
+ * stale copy would drop them. The lookup is one primary-key read next to a model call.
+ *
+ * Two turns of one session can still run at the same time (double submit, two tabs), so
+ * a turn is written only if the row is still at the version it was computed from;
+ * otherwise the latest row is read back and the turn applied on top of it.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.session.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcChatSessionStore implements ChatSessionStore {
+
+    private static final int MAX_SAVE_ATTEMPTS = 5;
+    private static final TypeReference<List<Map<String, String>>> MESSAGES_TYPE = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration timeToIdle;
+
+    public JdbcChatSessionStore(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${chat.session.time-to-idle:30m}") Duration timeToIdle) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.timeToIdle = timeToIdle;
+    }
+
+    @Override
+    public Optional<ChatSession> find(String sessionId) {
+        return jdbcTemplate.query(
+                        "SELECT slug, summary, messages, version FROM chat_sessions WHERE id = ? AND updated_at > ?",
+                        (rs, rowNum) -> mapSession(sessionId, rs),
+                        sessionId, Timestamp.valueOf(LocalDateTime.now().minus(timeToIdle)))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public void saveTurn(ChatSession session, UnaryOperator<ChatSession> turn) {
+        ChatSession base = session;
+        for (int attempt = 1; attempt <= MAX_SAVE_ATTEMPTS; attempt++) {
+            if (write(turn.apply(base))) {
+                return;
+            }
+            // Someone saved this session since it was read: redo the turn on their version
+            base = load(session.id()).orElseGet(() ->
+                    new ChatSession(session.id(), session.slug(), session.summary(), session.messages(), 0));
+        }
+        log.warn("Chat session {} kept changing, turn not saved after {} attempts", session.id(), MAX_SAVE_ATTEMPTS);
+    }
+
+    /** Writes the session if the stored row is still at {@code session.version()}; 0 means not stored yet. */
+    private boolean write(ChatSession session) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String messages = toJson(session.messages());
+        if (session.version() == 0) {
+            return jdbcTemplate.update("""
+                            INSERT INTO chat_sessions (id, slug, summary, messages, updated_at, version) VALUES (?, ?, ?, ?, ?, 1)
+                            ON CONFLICT (id) DO NOTHING
+                            """,
+                    session.id(), session.slug(), session.summary(), messages, now) == 1;
+        }
+        return jdbcTemplate.update("""
+                        UPDATE chat_sessions SET summary = ?, messages = ?, updated_at = ?, version = version + 1
+                        WHERE id = ? AND version = ?
+                        """,
+                session.summary(), messages, now, session.id(), session.version()) == 1;
+    }
+
+    // Ignores expiry: an expired row not purged yet must still be written over, not re-inserted
+    private Optional<ChatSession> load(String sessionId) {
+        return jdbcTemplate.query("SELECT slug, summary, messages, version FROM chat_sessions WHERE id = ?",
+                        (rs, rowNum) -> mapSession(sessionId, rs), sessionId)
+                .stream()
+                .findFirst();
+    }
+
+    private ChatSession mapSession(String sessionId, ResultSet rs) throws SQLException {
+        return new ChatSession(
+                sessionId,
+                rs.getString("slug"),
+                rs.getString("summary") != null ? rs.getString("summary") : "",
+                fromJson(rs.getString("messages")),
+                rs.getLong("version"));
+    }
+
+    @Scheduled(fixedDelayString = "${chat.session.purge-interval-ms:900000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM chat_sessions WHERE updated_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(timeToIdle)));
+        if (purged > 0) {
+            log.debug("Purged {} expired chat sessions", purged);
+        }
+    }
+
+    private String toJson(List<Message> messages) {
+        List<Map<String, String>> rows = messages.stream()
+                .map(m -> Map.of(
+                        "role", m.getMessageType() == MessageType.USER ? "user" : "assistant",
+                        "content", m.getText() != null ? m.getText() : ""))
+                .toList();
+        try {
+            return objectMapper.writeValueAsString(rows);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize chat session", e);
+        }
+    }
+
+    private List<Message> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, MESSAGES_TYPE).stream()
+                    .map(row -> "user".equals(row.get("role"))
+                            ? (Message) new UserMessage(row.get("content"))
+                            : new AssistantMessage(row.get("content")))
+                    .toList();
+        } catch (Exception e) {
+            log.warn("Discarding unreadable chat session: {}", e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.model.Project;
+import com.naammm.portfolioservice.model.Skill;
+import com.naammm.portfolioservice.model.SkillCategory;
+import com.naammm.portfolioservice.model.ToolboxConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a portfolio's free text into retrieval chunks: the CV by paragraph, one chunk
+ * per project and per skill category, and the toolbox text that is not already part of
+ * the fixed system prompt. Each chunk is labelled with where it came from so the model
+ * (and keyword questions like "projects?") can tell them apart.
+ */
+@Component
+public class KnowledgeChunker {
+
+    private final int maxChunkChars;
+
+    public KnowledgeChunker(@Value("${chat.retrieval.chunk-max-chars:800}") int maxChunkChars) {
+        this.maxChunkChars = maxChunkChars;
+    }
+
+    public List<String> chunk(String cvText, List<Project> projects, List<SkillCategory> skillCategories, ToolboxConfig tc) {
+        List<String> chunks = new ArrayList<>(chunkText("[CV] ", cvText));
+
+        if (tc == null || !Boolean.FALSE.equals(tc.getIsProjectsEnabled())) {
+            for (Project project : projects) {
+                StringBuilder sb = new StringBuilder("[Project] ").append(project.getTitle());
+                if (project.getCategory() != null && !project.getCategory().isBlank()) {
+                    sb.append(" (").append(project.getCategory()).append(")");
+                }
+                if (project.getDate() != null && !project.getDate().isBlank()) {
+                    sb.append(", ").append(project.getDate());
+                }
+                if (project.getDescription() != null && !project.getDescription().isBlank()) {
+                    sb.append("\n").append(project.getDescription());
+                }
+                if (project.getTags() != null && !project.getTags().isEmpty()) {
+                    sb.append("\nTech: ").append(String.join(", ", project.getTags()));
+                }
+                chunks.addAll(chunkText("", sb.toString()));
+            }
+        }
+
+        if (tc == null || !Boolean.FALSE.equals(tc.getIsSkillsEnabled())) {
+            for (SkillCategory category : skillCategories) {
+                List<String> names = category.getSkills().stream().map(Skill::getName).toList();
+                if (!names.isEmpty()) {
+                    chunks.add("[Skills] " + category.getTitle() + ": " + String.join(", ", names));
+                }
+            }
+        }
+
+        if (tc != null && !Boolean.FALSE.equals(tc.getIsVideoEnabled()) && tc.getVideoDescription() != null) {
+            chunks.addAll(chunkText("[Video] ", tc.getVideoDescription()));
+        }
+        return chunks;
+    }
+
+    /** Packs whole lines into chunks of at most {@code maxChunkChars}; longer lines are cut at word boundaries. */
+    List<String> chunkText(String label, String text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return chunks;
+        }
+        StringBuilder current = new StringBuilder();
+        for (String rawLine : text.split("\\R")) {
+            String line = rawLine.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            while (line.length() > maxChunkChars) {
+                int cut = line.lastIndexOf(' ', maxChunkChars);
+                cut = cut > maxChunkChars / 2 ? cut : maxChunkChars;
+                flush(chunks, label, current);
+                chunks.add(label + line.substring(0, cut).strip());
+                line = line.substring(cut).strip();
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (current.length() + line.length() + 1 > maxChunkChars) {
+                flush(chunks, label, current);
+            }
+            if (!current.isEmpty()) {
+                current.append('\n');
+            }
+            current.append(line);
+        }
+        flush(chunks, label, current);
+        return chunks;
+    }
+
+    private static void flush(List<String> chunks, String label, StringBuilder current) {
+        if (!current.isEmpty()) {
+            chunks.add(label + current);
+            current.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.exception.LlmCapacityException;
+import com.naammm.portfolioservice.exception.LlmTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs every outbound LLM call on a dedicated virtual-thread executor behind a bulkhead,
+ * so a slow model can never tie up the servlet threads that serve the dashboard.
+ *
+ * At most {@code llm.max-concurrent} calls run at once. Up to {@code llm.max-queued} more
+ * may wait, each for at most {@code llm.queue-timeout}; anything beyond that fails fast
+ * with {@link LlmCapacityException} (503). Calls running longer than {@code llm.call-timeout}
+ * are interrupted and fail with {@link LlmTimeoutException}.
+ */
+@Component
+@Slf4j
+public class LlmExecutor {
+
+    private static final String BUSY = "AI assistant is busy, please retry shortly";
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("llm-", 0).factory());
+    private final Scheduler scheduler = Schedulers.fromExecutorService(executor, "llm");
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final Duration queueTimeout;
+    private final Duration callTimeout;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter queueFullRejections;
+    private final Counter queueTimeoutRejections;
+    private final Counter callTimeouts;
+    private final Timer queueWait;
+
+    public LlmExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${llm.max-concurrent:8}") int maxConcurrent,
+            @Value("${llm.max-queued:32}") int maxQueued,
+            @Value("${llm.queue-timeout:5s}") Duration queueTimeout,
+            @Value("${llm.call-timeout:60s}") Duration callTimeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.callTimeout = callTimeout;
+
+        Gauge.builder("llm.bulkhead.queued", queued, AtomicInteger::get)
+                .description("LLM calls waiting for a bulkhead slot")
+                .register(meterRegistry);
+        Gauge.builder("llm.bulkhead.in.flight", inFlight, AtomicInteger::get)
+                .description("LLM calls currently running")
+                .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("llm.bulkhead.rejected")
+                .description("LLM calls rejected by the bulkhead")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.queueTimeoutRejections = Counter.builder("llm.bulkhead.rejected")
+                .description("LLM calls rejected by the bulkhead")
+                .tag("reason", "queue-timeout")
+                .register(meterRegistry);
+        this.callTimeouts = Counter.builder("llm.calls.timeout")
+                .description("LLM calls interrupted after the per-call timeout")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("llm.bulkhead.queue.wait")
+                .description("Time LLM calls spent waiting for a bulkhead slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a blocking model call through the bulkhead and waits for its result.
+     * Meant to be called from a virtual thread (see {@link #async}), where waiting is cheap.
+     */
+    public <T> T call(Supplier<T> call) {
+        acquire();
+        try {
+            return runWithTimeout(call);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Runs a background model call (e.g. answer warm-up) only if a slot is free right now
+     * and no other call is waiting for one. Never queues: returns empty instead, so
+     * background work can only use capacity visitors are not asking for.
+     */
+    public <T> Optional<T> callIfIdle(Supplier<T> call) {
+        if (queued.get() > 0 || !permits.tryAcquire()) {
+            return Optional.empty();
+        }
+        inFlight.incrementAndGet();
+        try {
+            return Optional.ofNullable(runWithTimeout(call));
+        } finally {
+            release();
+        }
+    }
+
+    private <T> T runWithTimeout(Supplier<T> call) {
+        Future<T> future = executor.submit(call::get);
+        try {
+            return future.get(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            callTimeouts.increment();
+            throw new LlmTimeoutException("LLM call timed out after " + callTimeout.toSeconds() + "s");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the LLM", e);
+        }
+    }
+
+    /**
+     * Runs a streaming model call through the bulkhead. Saturation is detected before
+     * returning, so the caller can still answer 503; the slot is held until the stream terminates.
+     * The call timeout is a deadline for the whole stream, not for the gap between chunks:
+     * a model that keeps writing must not hold its slot past it either.
+     */
+    public <T> Flux<T> stream(Supplier<Flux<T>> source) {
+        if (permits.availablePermits() == 0 && queued.get() >= maxQueued) {
+            queueFullRejections.increment();
+            throw new LlmCapacityException(BUSY);
+        }
+        return Flux.using(
+                        () -> {
+                            acquire();
+                            return Boolean.TRUE;
+                        },
+                        slot -> source.get()
+                                .timeout(Mono.delay(callTimeout), chunk -> Mono.never())
+                                .doOnError(TimeoutException.class, e -> callTimeouts.increment())
+                                .onErrorMap(TimeoutException.class, e -> new LlmTimeoutException(
+                                        "LLM stream timed out after " + callTimeout.toSeconds() + "s")),
+                        slot -> release())
+                .subscribeOn(scheduler);
+    }
+
+    /** Runs request handling on a virtual thread so the servlet thread is returned while the model works. */
+    public <T> CompletableFuture<T> async(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    private void acquire() {
+        if (!permits.tryAcquire()) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                queueFullRejections.increment();
+                throw new LlmCapacityException(BUSY);
+            }
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                queued.decrementAndGet();
+                queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                queueTimeoutRejections.increment();
+                throw new LlmCapacityException(BUSY);
+            }
+        }
+        inFlight.incrementAndGet();
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,221 @@
+package com.naammm.portfolioservice.service;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.naammm.portfolioservice.exception.FileUploadBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.CreateMultipartUploadResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.UploadPartResponse;
+import io.minio.messages.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams an upload of unknown length into MinIO without spooling it to disk.
+ *
+ * The body is cut into fixed-size parts as it arrives; parts are sent as an S3 multipart
+ * upload, several at a time, and reading pauses while the maximum number of parts is in
+ * flight. Memory use per upload is therefore bounded by (parallel-parts + 1) × part-size,
+ * and at most files.streaming.max-concurrent-uploads uploads run at once; further ones
+ * are refused with {@link FileUploadBusyException}. Bodies smaller than one part are sent
+ * with a single PUT.
+ */
+@Component
+@Slf4j
+public class MultipartUploader {
+
+    /** Exposes the multipart calls that MinioAsyncClient keeps protected. */
+    static final class Client extends MinioAsyncClient {
+
+        Client(MinioAsyncClient client) {
+            super(client);
+        }
+
+        CompletableFuture<CreateMultipartUploadResponse> create(String bucket, String object, Multimap<String, String> headers)
+                throws Exception {
+            return createMultipartUploadAsync(bucket, null, object, headers, null);
+        }
+
+        CompletableFuture<UploadPartResponse> part(String bucket, String object, String uploadId, int number, byte[] data)
+                throws Exception {
+            return uploadPartAsync(bucket, null, object, data, data.length, uploadId, number, null, null);
+        }
+
+        CompletableFuture<ObjectWriteResponse> complete(String bucket, String object, String uploadId, Part[] parts)
+                throws Exception {
+            return completeMultipartUploadAsync(bucket, null, object, uploadId, parts, null, null);
+        }
+
+        void abort(String bucket, String object, String uploadId) throws Exception {
+            abortMultipartUploadAsync(bucket, null, object, uploadId, null, null).get();
+        }
+    }
+
+    private final Client client;
+    private final MeterRegistry meterRegistry;
+    private final int partSize;
+    private final int parallelParts;
+    private final long maxSize;
+    private final Semaphore uploads;
+    private final AtomicLong bytesInFlight = new AtomicLong();
+    private final DistributionSummary throughput;
+    private final Counter bytesUploaded;
+
+    public MultipartUploader(
+            MinioAsyncClient minioAsyncClient,
+            MeterRegistry meterRegistry,
+            @Value("${files.streaming.part-size:8MB}") DataSize partSize,
+            @Value("${files.streaming.parallel-parts:3}") int parallelParts,
+            @Value("${files.streaming.max-size:500MB}") DataSize maxSize,
+            @Value("${files.streaming.max-concurrent-uploads:4}") int maxConcurrentUploads) {
+        if (partSize.toBytes() < DataSize.ofMegabytes(5).toBytes()) {
+            throw new IllegalArgumentException("files.streaming.part-size must be at least 5MB (S3 minimum part size)");
+        }
+        this.client = new Client(minioAsyncClient);
+        this.meterRegistry = meterRegistry;
+        this.partSize = (int) partSize.toBytes();
+        this.parallelParts = parallelParts;
+        this.maxSize = maxSize.toBytes();
+        this.uploads = new Semaphore(maxConcurrentUploads);
+
+        Gauge.builder("files.upload.active", uploads, s -> maxConcurrentUploads - s.availablePermits())
+                .description("Streamed uploads in progress")
+                .register(meterRegistry);
+        Gauge.builder("files.upload.bytes.in.flight", bytesInFlight, AtomicLong::get)
+                .description("Bytes read from clients and not yet acknowledged by object storage")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("files.upload.throughput")
+                .description("Throughput of each streamed upload")
+                .baseUnit("bytes/s")
+                .register(meterRegistry);
+        this.bytesUploaded = Counter.builder("files.upload.bytes")
+                .description("Bytes streamed to object storage")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Uploads everything readable from {@code in} to {@code bucket/object}.
+     *
+     * @return number of bytes stored
+     * @throws IllegalArgumentException if the body is larger than files.streaming.max-size
+     * @throws FileUploadBusyException  if files.streaming.max-concurrent-uploads are already running
+     */
+    public long upload(String bucket, String object, String contentType, InputStream in) throws Exception {
+        if (!uploads.tryAcquire()) {
+            Counter.builder("files.upload.rejected")
+                    .description("Streamed uploads refused because the service was at capacity")
+                    .register(meterRegistry)
+                    .increment();
+            throw new FileUploadBusyException("Too many files are being uploaded right now, please retry shortly");
+        }
+        try {
+            return timedUpload(bucket, object, contentType, in);
+        } finally {
+            uploads.release();
+        }
+    }
+
+    private long timedUpload(String bucket, String object, String contentType, InputStream in) throws Exception {
+        long started = System.nanoTime();
+        byte[] first = in.readNBytes(partSize);
+        boolean multipart = first.length == partSize;
+        long size = multipart
+                ? uploadParts(bucket, object, contentType, first, in)
+                : uploadSingle(bucket, object, contentType, first);
+
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("files.upload.duration")
+                .description("Time to stream one upload to object storage")
+                .tag("mode", multipart ? "multipart" : "single")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        throughput.record(size * 1_000_000_000d / Math.max(elapsed, 1));
+        bytesUploaded.increment(size);
+        return size;
+    }
+
+    private long uploadSingle(String bucket, String object, String contentType, byte[] content) throws Exception {
+        bytesInFlight.addAndGet(content.length);
+        try {
+            client.putObject(PutObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(object)
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
+                    .contentType(contentType)
+                    .build()).get();
+            return content.length;
+        } finally {
+            bytesInFlight.addAndGet(-content.length);
+        }
+    }
+
+    private long uploadParts(String bucket, String object, String contentType, byte[] first, InputStream in) throws Exception {
+        String uploadId = client.create(bucket, object, ImmutableMultimap.of("Content-Type", contentType))
+                .get().result().uploadId();
+        Semaphore permits = new Semaphore(parallelParts);
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        long size = 0;
+        try {
+            byte[] data = first;
+            int number = 1;
+            while (data.length > 0) {
+                size += data.length;
+                if (size > maxSize) {
+                    throw new IllegalArgumentException("File is larger than the " + DataSize.ofBytes(maxSize).toMegabytes() + "MB limit");
+                }
+
+                // Blocks reading the next part while the maximum number of parts is in flight
+                permits.acquire();
+                int partNumber = number++;
+                int length = data.length;
+                bytesInFlight.addAndGet(length);
+                parts.add(client.part(bucket, object, uploadId, partNumber, data)
+                        .thenApply(response -> new Part(partNumber, response.etag()))
+                        .whenComplete((part, error) -> {
+                            bytesInFlight.addAndGet(-length);
+                            permits.release();
+                        }));
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                data = in.readNBytes(partSize);
+            }
+
+            Part[] uploaded = new Part[parts.size()];
+            for (int i = 0; i < uploaded.length; i++) {
+                uploaded[i] = parts.get(i).join();
+            }
+            client.complete(bucket, object, uploadId, uploaded).get();
+            log.debug("Streamed {} bytes to {}/{} in {} parts", size, bucket, object, uploaded.length);
+            return size;
+        } catch (Exception e) {
+            parts.forEach(part -> part.cancel(true));
+            try {
+                client.abort(bucket, object, uploadId);
+            } catch (Exception abortError) {
+                log.warn("Could not abort multipart upload {} of {}/{}: {}", uploadId, bucket, object, abortError.getMessage());
+            }
+            throw e;
+        }
+    }
+}
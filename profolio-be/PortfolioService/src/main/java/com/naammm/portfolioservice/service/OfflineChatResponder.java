@@ -0,0 +1,205 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.naammm.portfolioservice.model.AIPersonality;
+import com.naammm.portfolioservice.model.Portfolio;
+import com.naammm.portfolioservice.model.Project;
+import com.naammm.portfolioservice.model.Skill;
+import com.naammm.portfolioservice.model.SkillCategory;
+import com.naammm.portfolioservice.model.ToolboxConfig;
+import com.naammm.portfolioservice.repository.AIPersonalityRepository;
+import com.naammm.portfolioservice.repository.PortfolioRepository;
+import com.naammm.portfolioservice.repository.ProjectRepository;
+import com.naammm.portfolioservice.repository.SkillCategoryRepository;
+import com.naammm.portfolioservice.repository.ToolboxConfigRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Rule-based stand-in for the model while the chat model circuit is open. Picks the
+ * reply type from keywords in the question and fills the usual reply schema
+ * (type, lead, cards, followUp) from the portfolio's own data, honouring the same
+ * toolbox toggles as the system prompt. Never calls anything remote.
+ */
+@Component
+@RequiredArgsConstructor
+public class OfflineChatResponder {
+
+    private static final Map<String, List<String>> KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        KEYWORDS.put("SKILLS", List.of("skill", "stack", "tech", "technology", "technologies", "language", "framework", "tool", "expertise"));
+        KEYWORDS.put("PROJECTS", List.of("project", "built", "build", "app", "work", "worked on"));
+        KEYWORDS.put("CONTACT", List.of("contact", "email", "reach", "hire", "phone", "linkedin", "connect"));
+        KEYWORDS.put("LOCATION", List.of("where", "location", "located", "based", "live", "city", "country"));
+        KEYWORDS.put("RESUME", List.of("resume", "cv", "curriculum"));
+        KEYWORDS.put("HOBBIES", List.of("hobby", "hobbies", "interest", "free time", "fun", "weekend"));
+        KEYWORDS.put("PROFILE", List.of("who", "yourself", "about you", "introduce", "background", "experience"));
+    }
+
+    private static final Map<String, String> TOPICS = Map.of(
+            "SKILLS", "an overview of my skills",
+            "PROJECTS", "a look at my projects",
+            "CONTACT", "how to reach me",
+            "LOCATION", "where I'm based",
+            "RESUME", "my resume",
+            "HOBBIES", "what I do for fun",
+            "PROFILE", "a quick intro",
+            "MIXED", "a quick overview");
+
+    private static final int MAX_PROJECT_CARDS = 6;
+
+    private final ObjectMapper objectMapper;
+    private final PortfolioRepository portfolioRepository;
+    private final AIPersonalityRepository personalityRepository;
+    private final ToolboxConfigRepository toolboxConfigRepository;
+    private final ProjectRepository projectRepository;
+    private final SkillCategoryRepository skillCategoryRepository;
+
+    /** Cards per section, built once per portfolio version. */
+    private final Cache<String, Map<String, List<Map<String, Object>>>> sections = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public String reply(CompiledPrompt compiled, String question) {
+        Map<String, List<Map<String, Object>>> cardsBySection =
+                sections.get(compiled.portfolioId() + "/" + compiled.version(), key -> loadSections(compiled));
+
+        List<String> matched = intentsOf(question);
+        String type = matched.size() > 1 ? "MIXED" : matched.get(0);
+
+        List<Map<String, Object>> cards = new ArrayList<>();
+        for (String section : matched) {
+            cards.addAll(cardsBySection.getOrDefault(section, List.of()));
+        }
+        if (cards.isEmpty()) {
+            cards.add(card("GENERAL", null, "That's not something I can share here right now.", null));
+        }
+
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("type", cards.size() == 1 && "GENERAL".equals(cards.get(0).get("section_type")) ? "GENERAL" : type);
+        reply.put("lead", "My assistant is offline for a moment, so here is " + TOPICS.get(type) + " straight from my portfolio.");
+        reply.put("cards", cards);
+        reply.put("followUp", "Want to hear about my projects or skills? Ask again in a minute for a fuller answer.");
+        try {
+            return objectMapper.writeValueAsString(reply);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize offline reply", e);
+        }
+    }
+
+    static List<String> intentsOf(String question) {
+        String text = " " + (question != null ? question.toLowerCase(Locale.ROOT) : "").replaceAll("[^\\p{L}\\p{N}]+", " ") + " ";
+        List<String> matched = new ArrayList<>();
+        KEYWORDS.forEach((section, words) -> {
+            // Whole words or phrases, optionally plural
+            if (words.stream().anyMatch(word -> text.contains(" " + word + " ") || text.contains(" " + word + "s "))) {
+                matched.add(section);
+            }
+        });
+        return matched.isEmpty() ? List.of("PROFILE") : matched;
+    }
+
+    private Map<String, List<Map<String, Object>>> loadSections(CompiledPrompt compiled) {
+        Portfolio portfolio = portfolioRepository.findById(compiled.portfolioId())
+                .orElseThrow(() -> new RuntimeException("Portfolio not found for slug: " + compiled.slug()));
+        AIPersonality personality = personalityRepository.findByPortfolioId(compiled.portfolioId())
+                .orElseGet(() -> AIPersonality.builder().build());
+        ToolboxConfig tc = toolboxConfigRepository.findByPortfolioId(compiled.portfolioId()).orElse(null);
+
+        Map<String, List<Map<String, Object>>> result = new LinkedHashMap<>();
+        List<SkillCategory> skillCategories = enabled(tc == null ? null : tc.getIsSkillsEnabled())
+                ? skillCategoryRepository.findByPortfolioIdOrderByDisplayOrderAsc(compiled.portfolioId())
+                : List.of();
+
+        List<Map<String, Object>> profile = new ArrayList<>();
+        List<String> topSkills = skillCategories.stream()
+                .flatMap(category -> category.getSkills().stream())
+                .map(Skill::getName)
+                .limit(5)
+                .toList();
+        String background = personality.getProfessionalBio() != null ? personality.getProfessionalBio() : portfolio.getTagline();
+        if (background != null) {
+            profile.add(card("PROFILE", "Background", background, topSkills));
+        }
+        if (tc != null && enabled(tc.getIsMeEnabled()) && tc.getMeIntroduction() != null) {
+            profile.add(card("PROFILE", "What I Do", tc.getMeIntroduction(), tc.getMeTags()));
+        }
+        result.put("PROFILE", profile);
+
+        result.put("SKILLS", skillCategories.stream()
+                .filter(category -> !category.getSkills().isEmpty())
+                .map(category -> card("SKILLS", category.getTitle(), null,
+                        category.getSkills().stream().map(Skill::getName).toList()))
+                .toList());
+
+        List<Project> projects = enabled(tc == null ? null : tc.getIsProjectsEnabled())
+                ? projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(compiled.portfolioId())
+                : List.of();
+        result.put("PROJECTS", projects.stream()
+                .limit(MAX_PROJECT_CARDS)
+                .map(project -> card("PROJECTS", project.getTitle(), clip(project.getDescription()), project.getTags()))
+                .toList());
+
+        if (tc != null) {
+            List<Map<String, Object>> contact = new ArrayList<>();
+            if (enabled(tc.getIsContactEnabled())) {
+                if (tc.getContactEmail() != null) contact.add(card("CONTACT", "Email", tc.getContactEmail(), null));
+                if (tc.getContactPhone() != null) contact.add(card("CONTACT", "Phone", tc.getContactPhone(), null));
+                if (tc.getContactHandle() != null) contact.add(card("CONTACT", "Handle", tc.getContactHandle(), null));
+            }
+            result.put("CONTACT", contact);
+
+            if (enabled(tc.getIsLocationEnabled()) && (tc.getLocationCity() != null || tc.getLocationCountry() != null)) {
+                String place = String.join(", ", Stream.of(tc.getLocationCity(), tc.getLocationCountry())
+                        .filter(part -> part != null && !part.isBlank())
+                        .toList());
+                result.put("LOCATION", List.of(card("GENERAL", "Based in", place, null)));
+            }
+
+            if (enabled(tc.getIsResumeEnabled()) && tc.getResumeFileUrl() != null) {
+                String text = (tc.getResumeDescription() != null ? tc.getResumeDescription() + " " : "") + tc.getResumeFileUrl();
+                result.put("RESUME", List.of(card("GENERAL", "Resume", text, List.of("PDF"))));
+            }
+
+            if (enabled(tc.getIsHobbiesEnabled()) && tc.getHobbiesDescription() != null) {
+                result.put("HOBBIES", List.of(card("GENERAL",
+                        tc.getHobbiesTitle() != null ? tc.getHobbiesTitle() : "Hobbies", clip(tc.getHobbiesDescription()), null)));
+            }
+        }
+        return result;
+    }
+
+    private static boolean enabled(Boolean toggle) {
+        return !Boolean.FALSE.equals(toggle);
+    }
+
+    private static Map<String, Object> card(String sectionType, String title, String text, List<String> tags) {
+        Map<String, Object> card = new LinkedHashMap<>();
+        card.put("section_type", sectionType);
+        if (title != null) card.put("title", title);
+        if (text != null) card.put("text", text);
+        if (tags != null && !tags.isEmpty()) card.put("tags", tags);
+        return card;
+    }
+
+    private static String clip(String text) {
+        if (text == null || text.length() <= 240) {
+            return text;
+        }
+        int cut = text.lastIndexOf(' ', 240);
+        return text.substring(0, cut > 120 ? cut : 240) + "…";
+    }
+}
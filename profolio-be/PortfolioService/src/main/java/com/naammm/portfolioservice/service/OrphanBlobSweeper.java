@@ -0,0 +1,108 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.messages.Item;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Deletes content-addressed uploads that no portfolio points at any more, together with
+ * their image variants.
+ *
+ * Reference counts are recomputed from the URL columns on every run rather than kept up
+ * to date on each edit, so a missed decrement can never delete a file that is in use.
+ * Blobs uploaded (or uploaded again) within the grace period are kept: the owner may not
+ * have saved the URL yet.
+ */
+@Component
+@Slf4j
+public class OrphanBlobSweeper {
+
+    private final FileBlobStore fileBlobStore;
+    private final MinioClient minioClient;
+    private final StorageBootstrap storage;
+    private final Counter swept;
+    private final String bucketName;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    public OrphanBlobSweeper(
+            FileBlobStore fileBlobStore,
+            MinioClient minioClient,
+            StorageBootstrap storage,
+            MeterRegistry meterRegistry,
+            @Value("${minio.bucketName}") String bucketName,
+            @Value("${files.sweeper.enabled:true}") boolean enabled,
+            @Value("${files.sweeper.grace-period:24h}") Duration gracePeriod,
+            @Value("${files.sweeper.batch-size:500}") int batchSize) {
+        this.fileBlobStore = fileBlobStore;
+        this.minioClient = minioClient;
+        this.storage = storage;
+        this.swept = Counter.builder("files.blobs.swept")
+                .description("Unreferenced uploads deleted from storage")
+                .register(meterRegistry);
+        this.bucketName = bucketName;
+        this.enabled = enabled;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${files.sweeper.interval-ms:3600000}", initialDelayString = "${files.sweeper.initial-delay-ms:300000}")
+    public void sweep() {
+        if (!enabled || !storage.isReady()) {
+            return;
+        }
+        try {
+            fileBlobStore.recountReferences();
+            List<FileBlobStore.Blob> orphans = fileBlobStore.findOrphans(gracePeriod, batchSize);
+            int deleted = 0;
+            for (FileBlobStore.Blob blob : orphans) {
+                // Re-checked in the DELETE: an upload of the same content since the recount keeps it
+                if (fileBlobStore.deleteIfOrphan(blob.digest(), gracePeriod)) {
+                    removeWithVariants(blob.objectKey());
+                    swept.increment();
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                log.debug("Swept {} unreferenced uploads", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Orphan upload sweep failed", e);
+        }
+    }
+
+    private void removeWithVariants(String objectKey) {
+        remove(objectKey);
+        for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(objectKey + ".")
+                .build())) {
+            try {
+                remove(result.get().objectName());
+            } catch (Exception ex) {
+                log.warn("Could not list variants of {}: {}", objectKey, ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void remove(String objectKey) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectKey).build());
+        } catch (Exception ex) {
+            log.warn("Could not remove object {}: {}", objectKey, ex.getMessage());
+        }
+    }
+}
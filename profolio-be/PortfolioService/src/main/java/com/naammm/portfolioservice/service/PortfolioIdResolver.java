@@ -0,0 +1,95 @@
+package com.naammm.portfolioservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.naammm.portfolioservice.event.PortfolioCachesResetEvent;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import com.naammm.portfolioservice.repository.PortfolioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves slugs and owner ids to portfolio ids without touching the portfolio row, so
+ * callers can go straight to child tables by id (or to the entity cache via findById).
+ *
+ * Unknown slugs are remembered for a short while, so scrapers probing random slugs are
+ * answered from memory. Slug entries are corrected as soon as a rename commits, and all
+ * are dropped when the invalidation bus reconnects; the owner of a portfolio never
+ * changes, so user entries are only ever added.
+ */
+@Component
+@Slf4j
+public class PortfolioIdResolver {
+
+    private final PortfolioRepository portfolioRepository;
+    private final Cache<String, Optional<UUID>> slugs;
+    private final Cache<UUID, UUID> owners;
+
+    public PortfolioIdResolver(
+            PortfolioRepository portfolioRepository,
+            MeterRegistry meterRegistry,
+            @Value("${portfolio.id-resolver.maximum-size:100000}") long maximumSize,
+            @Value("${portfolio.id-resolver.negative-time-to-live:1m}") Duration negativeTimeToLive) {
+        this.portfolioRepository = portfolioRepository;
+        this.slugs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<UUID>>() {
+                    @Override
+                    public long expireAfterCreate(String slug, Optional<UUID> id, long currentTime) {
+                        return id.isPresent() ? Long.MAX_VALUE : negativeTimeToLive.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String slug, Optional<UUID> id, long currentTime, long currentDuration) {
+                        return expireAfterCreate(slug, id, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String slug, Optional<UUID> id, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, slugs, "portfolio.id-resolver.slugs");
+        CaffeineCacheMetrics.monitor(meterRegistry, owners, "portfolio.id-resolver.owners");
+    }
+
+    public Optional<UUID> bySlug(String slug) {
+        return slugs.get(slug, portfolioRepository::findIdBySlug);
+    }
+
+    /** Users without a portfolio yet are not remembered; their first dashboard visit creates one. */
+    public Optional<UUID> byUserId(UUID userId) {
+        return Optional.ofNullable(owners.get(userId, id -> portfolioRepository.findIdByUserId(id).orElse(null)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.previousSlug() != null) {
+            log.debug("Portfolio {} renamed from {} to {}", event.portfolioId(), event.previousSlug(), event.slug());
+            slugs.invalidate(event.previousSlug());
+        }
+        slugs.put(event.slug(), Optional.of(event.portfolioId()));
+    }
+
+    /** Known slugs never expire, so a rename missed while disconnected would stick without this. */
+    @EventListener
+    public void onCachesReset(PortfolioCachesResetEvent event) {
+        slugs.invalidateAll();
+    }
+}
@@ -1,33 +1,26 @@
 package com.naammm.portfolioservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.naammm.portfolioservice.dto.AIPersonalityDto;
 import com.naammm.portfolioservice.dto.PortfolioDto;
-import com.naammm.portfolioservice.dto.PublicPersonalityDto;
+import com.naammm.portfolioservice.dto.PublicPortfolioView;
 import com.naammm.portfolioservice.dto.SuggestedQuestionDto;
-import com.naammm.portfolioservice.dto.ProjectDto;
-import com.naammm.portfolioservice.dto.SkillCategoryDto;
 import com.naammm.portfolioservice.model.AIPersonality;
 import com.naammm.portfolioservice.model.Portfolio;
 import com.naammm.portfolioservice.model.SuggestedQuestion;
-import com.naammm.portfolioservice.model.Project;
-import com.naammm.portfolioservice.model.SkillCategory;
-import com.naammm.portfolioservice.model.Skill;
-import com.naammm.portfolioservice.model.ToolboxConfig;
 import com.naammm.portfolioservice.repository.AIPersonalityRepository;
 import com.naammm.portfolioservice.repository.PortfolioRepository;
 import com.naammm.portfolioservice.repository.SuggestedQuestionRepository;
-import com.naammm.portfolioservice.repository.ProjectRepository;
-import com.naammm.portfolioservice.repository.SkillCategoryRepository;
-import com.naammm.portfolioservice.repository.ToolboxConfigRepository;
-import com.naammm.portfolioservice.dto.ToolboxConfigDto;
 import com.naammm.portfolioservice.dto.ai.CVExtractedData;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import com.naammm.portfolioservice.exception.PortfolioNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 import java.util.Collections;
 
-import java.io.IOException;
 import java.util.*;
 
 @Service
@@ -37,30 +30,31 @@ public class PortfolioService {
     private final PortfolioRepository portfolioRepository;
     private final AIPersonalityRepository personalityRepository;
     private final SuggestedQuestionRepository questionRepository;
-    private final ProjectRepository projectRepository;
-    private final SkillCategoryRepository skillCategoryRepository;
-    private final ToolboxConfigRepository toolboxConfigRepository;
-    private final CVService cvService;
-    private final AICVExtractorService aiCVExtractorService;
+    private final CvContentMerger cvContentMerger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final PortfolioIdResolver portfolioIdResolver;
 
     // --- Portfolio CRUD ---
 
     @Transactional
     public PortfolioDto getPortfolioByUserId(UUID userId) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseGet(() -> createDefaultPortfolio(userId));
         return mapToPortfolioDto(portfolio);
     }
 
     @Transactional
     public PortfolioDto updatePortfolio(UUID userId, PortfolioDto dto) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseGet(() -> createDefaultPortfolio(userId));
 
+        String previousSlug = null;
         if (dto.getSlug() != null && !dto.getSlug().equals(portfolio.getSlug())) {
             if (portfolioRepository.existsBySlug(dto.getSlug())) {
                 throw new IllegalArgumentException("Slug already exists: " + dto.getSlug());
             }
+            previousSlug = portfolio.getSlug();
             portfolio.setSlug(dto.getSlug());
         }
 
@@ -76,17 +70,19 @@ public class PortfolioService {
         if (dto.getModalTitle() != null) portfolio.setModalTitle(dto.getModalTitle());
         if (dto.getModalContent() != null) portfolio.setModalContent(dto.getModalContent());
 
-        return mapToPortfolioDto(portfolioRepository.save(portfolio));
+        Portfolio saved = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(PortfolioChangedEvent.renamed(saved, previousSlug));
+        return mapToPortfolioDto(saved);
     }
 
     // --- Personality CRUD ---
 
     @Transactional
     public AIPersonalityDto getPersonality(UUID userId) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseGet(() -> createDefaultPortfolio(userId));
 
-        AIPersonality personality = personalityRepository.findByPortfolio(portfolio)
+        AIPersonality personality = personalityRepository.findByPortfolioId(portfolio.getId())
                 .orElseGet(() -> createDefaultPersonality(portfolio));
 
         return mapToPersonalityDto(personality);
@@ -94,10 +90,10 @@ public class PortfolioService {
 
     @Transactional
     public AIPersonalityDto updatePersonality(UUID userId, AIPersonalityDto dto) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
 
-        AIPersonality personality = personalityRepository.findByPortfolio(portfolio)
+        AIPersonality personality = personalityRepository.findByPortfolioId(portfolio.getId())
                 .orElseGet(() -> createDefaultPersonality(portfolio));
 
         if (dto.getProfessionalBio() != null) personality.setProfessionalBio(dto.getProfessionalBio());
@@ -111,30 +107,27 @@ public class PortfolioService {
         if (dto.getGeneralContext() != null) personality.setGeneralContext(dto.getGeneralContext());
         if (dto.getTemperature() != null) personality.setTemperature(dto.getTemperature());
 
-        return mapToPersonalityDto(personalityRepository.save(personality));
+        AIPersonality saved = personalityRepository.save(personality);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
+        return mapToPersonalityDto(saved);
     }
 
     // --- CV Ingestion ---
 
+    /**
+     * Persists the result of a CV extraction. Parsing and the model call happen before,
+     * in {@link CvIngestionService}, so this transaction only covers the writes.
+     */
     @Transactional
-    public void ingestCV(UUID userId, MultipartFile file) throws IOException {
-        if (!cvService.isSupportedFormat(file)) {
-            throw new IllegalArgumentException("Unsupported file format. Please upload PDF or DOCX.");
-        }
-
-        String content = cvService.extractText(file);
-
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+    public void applyCvExtraction(UUID userId, String content, CVExtractedData extractedData) {
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseGet(() -> createDefaultPortfolio(userId));
 
-        AIPersonality personality = personalityRepository.findByPortfolio(portfolio)
+        AIPersonality personality = personalityRepository.findByPortfolioId(portfolio.getId())
                 .orElseGet(() -> createDefaultPersonality(portfolio));
 
         personality.setCvText(content);
-        
-        // --- Call AI Extractor ---
-        CVExtractedData extractedData = aiCVExtractorService.extract(content);
-        
+
         // 1. Update Portfolio
         if (extractedData.headline() != null && !extractedData.headline().isBlank()) {
             portfolio.setHeadline(extractedData.headline());
@@ -159,60 +152,23 @@ public class PortfolioService {
         }
         personalityRepository.save(personality);
 
-        // 3. Update Projects
+        // 3. Update Projects and Skills (diffed against the stored rows, written in batches)
         if (extractedData.projects() != null && !extractedData.projects().isEmpty()) {
-            projectRepository.deleteAll(projectRepository.findByPortfolioOrderByDisplayOrderAsc(portfolio));
-            int order = 0;
-            for (CVExtractedData.ProjectData pData : extractedData.projects()) {
-                Project proj = Project.builder()
-                        .portfolio(portfolio)
-                        .title(pData.title() != null ? pData.title() : "Unknown Project")
-                        .category(pData.category() != null ? pData.category() : "Other")
-                        .description(pData.description() != null ? pData.description() : "")
-                        .date(pData.date() != null ? pData.date() : "")
-                        .tags(pData.tags() != null ? pData.tags() : Collections.emptyList())
-                        .links(Collections.emptyList())
-                        .displayOrder(order++)
-                        .build();
-                projectRepository.save(proj);
-            }
+            cvContentMerger.mergeProjects(portfolio, extractedData.projects());
         }
-
-        // 4. Update Skills
         if (extractedData.skillCategories() != null && !extractedData.skillCategories().isEmpty()) {
-            skillCategoryRepository.deleteAll(skillCategoryRepository.findByPortfolioOrderByDisplayOrderAsc(portfolio));
-            int order = 0;
-            for (CVExtractedData.SkillCategoryData catData : extractedData.skillCategories()) {
-                SkillCategory cat = SkillCategory.builder()
-                        .portfolio(portfolio)
-                        .title(catData.title() != null ? catData.title() : "Skills")
-                        .displayOrder(order++)
-                        .build();
-                SkillCategory savedCat = skillCategoryRepository.save(cat);
-                
-                if (catData.skills() != null) {
-                    int skillOrder = 0;
-                    List<Skill> skills = new java.util.ArrayList<>();
-                    for (String skillName : catData.skills()) {
-                        skills.add(Skill.builder()
-                                .skillCategory(savedCat)
-                                .name(skillName)
-                                .displayOrder(skillOrder++)
-                                .build());
-                    }
-                    savedCat.setSkills(skills);
-                    skillCategoryRepository.save(savedCat);
-                }
-            }
+            cvContentMerger.mergeSkills(portfolio, extractedData.skillCategories());
         }
+
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
     }
 
     // --- Suggested Questions CRUD ---
 
     @Transactional(readOnly = true)
     public List<SuggestedQuestionDto> getQuestions(UUID userId) {
-        return portfolioRepository.findByUserId(userId)
-                .map(portfolio -> questionRepository.findByPortfolio(portfolio).stream()
+        return portfolioIdResolver.byUserId(userId)
+                .map(portfolioId -> questionRepository.findByPortfolioId(portfolioId).stream()
                         .map(this::mapToQuestionDto)
                         .toList())
                 .orElse(Collections.emptyList());
@@ -220,7 +176,7 @@ public class PortfolioService {
 
     @Transactional
     public SuggestedQuestionDto addQuestion(UUID userId, SuggestedQuestionDto dto) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
 
         SuggestedQuestion question = SuggestedQuestion.builder()
@@ -230,13 +186,15 @@ public class PortfolioService {
                 .isDefault(dto.getIsDefault() != null ? dto.getIsDefault() : false)
                 .build();
 
-        return mapToQuestionDto(questionRepository.save(question));
+        SuggestedQuestion saved = questionRepository.save(question);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
+        return mapToQuestionDto(saved);
     }
 
     @Transactional
     public SuggestedQuestionDto updateQuestion(UUID userId, UUID questionId, SuggestedQuestionDto dto) {
         // Simple security check: make sure question belongs to user's portfolio
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
         
         SuggestedQuestion question = questionRepository.findById(questionId)
@@ -250,12 +208,14 @@ public class PortfolioService {
         if (dto.getCategory() != null) question.setCategory(dto.getCategory());
         if (dto.getIsDefault() != null) question.setIsDefault(dto.getIsDefault());
 
-        return mapToQuestionDto(questionRepository.save(question));
+        SuggestedQuestion saved = questionRepository.save(question);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
+        return mapToQuestionDto(saved);
     }
 
     @Transactional
     public void deleteQuestion(UUID userId, UUID questionId) {
-        Portfolio portfolio = portfolioRepository.findByUserId(userId)
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
         
         SuggestedQuestion question = questionRepository.findById(questionId)
@@ -266,41 +226,30 @@ public class PortfolioService {
         }
 
         questionRepository.delete(question);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
     }
 
     // --- Public Portfolio ---
 
+    /** One round trip: Postgres aggregates the page into JSON which maps straight onto the view. */
     @Transactional(readOnly = true)
-    public Map<String, Object> getPublicPortfolio(String slug) {
-        Portfolio portfolio = portfolioRepository.findBySlug(slug)
-                .orElseThrow(() -> new RuntimeException("Portfolio not found"));
-        
-        AIPersonality personality = personalityRepository.findByPortfolio(portfolio)
-                .orElseGet(() -> AIPersonality.builder().temperature(50).build());
-        
-        List<SuggestedQuestion> questions = questionRepository.findByPortfolio(portfolio);
-        List<Project> projects = projectRepository.findByPortfolioOrderByDisplayOrderAsc(portfolio);
-        List<SkillCategory> skillCategories = skillCategoryRepository.findByPortfolioOrderByDisplayOrderAsc(portfolio);
-        ToolboxConfig toolboxConfig = toolboxConfigRepository.findByPortfolio(portfolio).orElse(null);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("portfolio", mapToPortfolioDto(portfolio));
-        result.put("personality", mapToPublicPersonalityDto(personality));
-        result.put("questions", questions.stream().map(this::mapToQuestionDto).toList());
-        result.put("projects", projects.stream().map(this::mapToProjectDto).toList());
-        result.put("skills", skillCategories.stream().map(this::mapToSkillCategoryDto).toList());
-        
-        if (toolboxConfig != null) {
-            result.put("tools", mapToToolboxConfigDto(toolboxConfig));
-        } else {
-            result.put("tools", null);
+    public PublicPortfolioView getPublicPortfolio(String slug) {
+        String json = portfolioRepository.findPublicViewJsonBySlug(slug)
+                .orElseThrow(() -> new PortfolioNotFoundException(slug));
+        try {
+            return objectMapper.readValue(json, PublicPortfolioView.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read public view of portfolio " + slug, e);
         }
-        
-        return result;
     }
 
     // --- Helpers & Mappers ---
 
+    /** Owner lookups go through the id resolver, so the row itself comes from the entity cache. */
+    private Optional<Portfolio> findPortfolio(UUID userId) {
+        return portfolioIdResolver.byUserId(userId).flatMap(portfolioRepository::findById);
+    }
+
     private Portfolio createDefaultPortfolio(UUID userId) {
         return portfolioRepository.save(Portfolio.builder()
                 .userId(userId)
@@ -351,14 +300,6 @@ public class PortfolioService {
                 .build();
     }
 
-    private PublicPersonalityDto mapToPublicPersonalityDto(AIPersonality p) {
-        return PublicPersonalityDto.builder()
-                .professionalBio(p.getProfessionalBio())
-                .skills(p.getSkills())
-                .biggestFlex(p.getBiggestFlex())
-                .build();
-    }
-
     private SuggestedQuestionDto mapToQuestionDto(SuggestedQuestion q) {
         return SuggestedQuestionDto.builder()
                 .id(q.getId())
@@ -367,81 +308,4 @@ public class PortfolioService {
                 .isDefault(q.getIsDefault())
                 .build();
     }
-
-    private ProjectDto mapToProjectDto(Project p) {
-        return ProjectDto.builder()
-                .id(p.getId())
-                .title(p.getTitle())
-                .category(p.getCategory())
-                .description(p.getDescription())
-                .date(p.getDate())
-                .tags(p.getTags())
-                .links(p.getLinks())
-                .displayOrder(p.getDisplayOrder())
-                .build();
-    }
-
-    private SkillCategoryDto mapToSkillCategoryDto(SkillCategory c) {
-        List<String> skillNames = c.getSkills() != null
-                ? c.getSkills().stream().map(Skill::getName).toList()
-                : new ArrayList<>();
-        
-        return SkillCategoryDto.builder()
-                .id(c.getId())
-                .title(c.getTitle())
-                .skills(skillNames)
-                .displayOrder(c.getDisplayOrder())
-                .build();
-    }
-
-    private ToolboxConfigDto mapToToolboxConfigDto(ToolboxConfig c) {
-        return ToolboxConfigDto.builder()
-                .isGlobalEnabled(c.getIsGlobalEnabled())
-                .isProjectsEnabled(c.getIsProjectsEnabled())
-                .isSkillsEnabled(c.getIsSkillsEnabled())
-                .meInfo(ToolboxConfigDto.MeInfo.builder()
-                        .isEnabled(c.getIsMeEnabled())
-                        .name(c.getMeName())
-                        .age(c.getMeAge())
-                        .location(c.getMeLocation())
-                        .introduction(c.getMeIntroduction())
-                        .tags(c.getMeTags())
-                        .photoUrl(c.getMePhotoUrl())
-                        .build())
-                .hobbiesInfo(ToolboxConfigDto.HobbiesInfo.builder()
-                        .isEnabled(c.getIsHobbiesEnabled())
-                        .title(c.getHobbiesTitle())
-                        .description(c.getHobbiesDescription())
-                        .photos(c.getHobbiesPhotos())
-                        .build())
-                .contactInfo(ToolboxConfigDto.ContactInfo.builder()
-                        .isEnabled(c.getIsContactEnabled())
-                        .name(c.getContactName())
-                        .email(c.getContactEmail())
-                        .phone(c.getContactPhone())
-                        .handle(c.getContactHandle())
-                        .address(c.getContactAddress())
-                        .socialPlatforms(c.getContactSocialPlatforms())
-                        .socialUrls(c.getContactSocialUrls())
-                        .build())
-                .resumeInfo(ToolboxConfigDto.ResumeInfo.builder()
-                        .isEnabled(c.getIsResumeEnabled())
-                        .title(c.getResumeTitle())
-                        .description(c.getResumeDescription())
-                        .fileUrl(c.getResumeFileUrl())
-                        .fileName(c.getResumeFileName())
-                        .build())
-                .videoInfo(ToolboxConfigDto.VideoInfo.builder()
-                        .isEnabled(c.getIsVideoEnabled())
-                        .title(c.getVideoTitle())
-                        .url(c.getVideoUrl())
-                        .description(c.getVideoDescription())
-                        .build())
-                .locationInfo(ToolboxConfigDto.LocationInfo.builder()
-                        .isEnabled(c.getIsLocationEnabled())
-                        .city(c.getLocationCity())
-                        .country(c.getLocationCountry())
-                        .build())
-                .build();
-    }
 }
@@ -0,0 +1,216 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.dto.PresignedUpload;
+import com.naammm.portfolioservice.dto.PresignedUploadRequest;
+import com.naammm.portfolioservice.dto.UploadedFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.MinioClient;
+import io.minio.PostPolicy;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lets the browser upload files straight to object storage, so the bytes never pass
+ * through the gateway or this service.
+ *
+ * The client asks for a short-lived presigned POST policy, declaring name, type and size.
+ * The policy pins the object key and Content-Type and limits the body to the declared
+ * size, so storage itself refuses anything else. After uploading the client confirms and
+ * the object is checked again before it is registered; one that is never confirmed is
+ * deleted once its policy has long expired.
+ */
+@Service
+@Slf4j
+public class PresignedUploadService {
+
+    private final MinioClient minioClient;
+    private final MinioClient presignClient;
+    private final FileService fileService;
+    private final StoredFileStore storedFileStore;
+    private final MeterRegistry meterRegistry;
+    private final StorageBootstrap storage;
+    private final String bucketName;
+    private final Duration timeToLive;
+    private final long maxSize;
+    private final List<String> allowedContentTypes;
+
+    public PresignedUploadService(
+            MinioClient minioClient,
+            @Qualifier("minioPresignClient") MinioClient presignClient,
+            FileService fileService,
+            StoredFileStore storedFileStore,
+            MeterRegistry meterRegistry,
+            StorageBootstrap storage,
+            @Value("${minio.bucketName}") String bucketName,
+            @Value("${files.presigned.time-to-live:10m}") Duration timeToLive,
+            @Value("${files.presigned.max-size:100MB}") DataSize maxSize,
+            @Value("${files.presigned.allowed-content-types:image/*,video/*,application/pdf}") List<String> allowedContentTypes) {
+        this.minioClient = minioClient;
+        this.presignClient = presignClient;
+        this.fileService = fileService;
+        this.storedFileStore = storedFileStore;
+        this.meterRegistry = meterRegistry;
+        this.storage = storage;
+        this.bucketName = bucketName;
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize.toBytes();
+        this.allowedContentTypes = allowedContentTypes.stream().map(PresignedUploadService::mediaType).toList();
+    }
+
+    public PresignedUpload presign(UUID ownerId, PresignedUploadRequest request) {
+        storage.requireReady();
+        if (request.getFilename() == null || request.getFilename().isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        String contentType = mediaType(request.getContentType());
+        if (!isAllowed(contentType)) {
+            throw new IllegalArgumentException("Unsupported file type: " + request.getContentType());
+        }
+        if (request.getSize() == null || request.getSize() <= 0 || request.getSize() > maxSize) {
+            throw new IllegalArgumentException("File size must be between 1 byte and " + DataSize.ofBytes(maxSize).toMegabytes() + "MB");
+        }
+
+        String objectKey = fileService.objectNameFor(request.getFilename());
+        PostPolicy policy = new PostPolicy(bucketName, ZonedDateTime.now().plus(timeToLive));
+        policy.addEqualsCondition("key", objectKey);
+        policy.addEqualsCondition("Content-Type", contentType);
+        policy.addContentLengthRangeCondition(1, request.getSize());
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("key", objectKey);
+        fields.put("Content-Type", contentType);
+        try {
+            fields.putAll(presignClient.getPresignedPostFormData(policy));
+        } catch (Exception ex) {
+            throw new RuntimeException("Could not prepare upload for " + objectKey + ". Please try again!", ex);
+        }
+        storedFileStore.createPending(objectKey, ownerId, contentType, request.getSize());
+        count("issued");
+
+        return new PresignedUpload(objectKey, fileService.bucketUrl(), "POST", fields,
+                Instant.now().plus(timeToLive));
+    }
+
+    /**
+     * Verifies an upload made with a presigned URL and registers it. The object keeps its
+     * own key: it is not content-addressed, since hashing it would pull the bytes back
+     * through this service. The row only becomes STORED once its variants are written, so
+     * a failed completion can be retried (or is purged if it never is).
+     *
+     * @return the stored file, with image variants when it is a photo
+     */
+    public UploadedFile complete(UUID ownerId, String objectKey) {
+        storage.requireReady();
+        StoredFileStore.StoredFile file = storedFileStore.find(objectKey)
+                .filter(f -> f.ownerId().equals(ownerId))
+                .orElseThrow(() -> new IllegalArgumentException("Unknown upload: " + objectKey));
+        String filename = objectKey.substring(objectKey.indexOf('_') + 1);
+        if (StoredFileStore.STORED.equals(file.status())) {
+            return fileService.describeExisting(objectKey, filename);
+        }
+
+        StatObjectResponse stat;
+        try {
+            stat = minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(objectKey).build());
+        } catch (ErrorResponseException ex) {
+            if ("NoSuchKey".equals(ex.errorResponse().code())) {
+                throw new IllegalArgumentException("The file has not been uploaded yet");
+            }
+            throw new RuntimeException("Could not verify upload " + objectKey + ". Please try again!", ex);
+        } catch (Exception ex) {
+            throw new RuntimeException("Could not verify upload " + objectKey + ". Please try again!", ex);
+        }
+
+        if (stat.size() > file.maxSize() || !mediaType(stat.contentType()).equals(file.contentType())) {
+            log.warn("Rejecting upload {}: {} bytes of {} (declared at most {} bytes of {})",
+                    objectKey, stat.size(), stat.contentType(), file.maxSize(), file.contentType());
+            remove(objectKey);
+            storedFileStore.delete(objectKey);
+            count("rejected");
+            throw new IllegalArgumentException("The uploaded file does not match the declared size or type");
+        }
+
+        UploadedFile uploaded;
+        try {
+            uploaded = fileService.describe(objectKey, filename, file.contentType(), stat.size());
+        } catch (Exception ex) {
+            throw new RuntimeException("Could not process upload " + objectKey + ". Please try again!", ex);
+        }
+        if (!storedFileStore.markStored(objectKey, stat.size())) {
+            // A concurrent completion of the same upload won (and wrote the same variants),
+            // or the purge removed it meanwhile
+            if (storedFileStore.find(objectKey).isEmpty()) {
+                throw new IllegalArgumentException("The upload has expired, please upload the file again");
+            }
+            return uploaded;
+        }
+        count("stored");
+        return uploaded;
+    }
+
+    /** Deletes objects whose upload was never confirmed, well after their URL expired. */
+    @Scheduled(fixedDelayString = "${files.presigned.purge-interval-ms:3600000}")
+    public void purgeAbandoned() {
+        if (!storage.isReady()) {
+            return;
+        }
+        List<String> abandoned = storedFileStore.findPendingBefore(LocalDateTime.now().minus(timeToLive.multipliedBy(2)));
+        for (String objectKey : abandoned) {
+            // A completion that committed after the listing keeps its object
+            if (storedFileStore.deletePending(objectKey)) {
+                remove(objectKey);
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            log.debug("Purged {} unconfirmed uploads", abandoned.size());
+        }
+    }
+
+    private void remove(String objectKey) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectKey).build());
+        } catch (Exception ex) {
+            log.warn("Could not remove object {}: {}", objectKey, ex.getMessage());
+        }
+    }
+
+    private boolean isAllowed(String contentType) {
+        return allowedContentTypes.stream().anyMatch(allowed -> allowed.endsWith("/*")
+                ? contentType.startsWith(allowed.substring(0, allowed.length() - 1))
+                : contentType.equals(allowed));
+    }
+
+    /** "Image/PNG; charset=x" and "image/png" are the same type. */
+    private static String mediaType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int params = contentType.indexOf(';');
+        return (params >= 0 ? contentType.substring(0, params) : contentType).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void count(String outcome) {
+        Counter.builder("files.presigned.uploads")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
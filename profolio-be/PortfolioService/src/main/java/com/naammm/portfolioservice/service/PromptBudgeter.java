@@ -0,0 +1,149 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Assembles the chat prompt within a fixed token budget. Space is handed out in order:
+ * <ol>
+ *     <li>the fixed parts of the system prompt and the visitor's message, always sent whole;</li>
+ *     <li>the most recent session turns, verbatim, up to {@code history-max-tokens};</li>
+ *     <li>a rolling summary of everything older;</li>
+ *     <li>the top-k knowledge chunks retrieved for the question, best first, for as long as they fit.</li>
+ * </ol>
+ * Every assembled prompt is recorded in the {@code chat.prompt.tokens} distribution.
+ */
+@Component
+public class PromptBudgeter {
+
+    private static final String NO_CONTEXT = "Information is being updated.";
+    private static final String SUMMARY_HEADING = "\n### EARLIER IN THIS CONVERSATION (SUMMARY):\n";
+
+    private final TokenEstimator tokenEstimator;
+    private final ChatHistoryCompactor compactor;
+    private final int maxTokens;
+    private final int historyMaxTokens;
+    private final int messageOverheadTokens;
+    private final int topK;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary contextChunks;
+
+    public PromptBudgeter(
+            TokenEstimator tokenEstimator,
+            ChatHistoryCompactor compactor,
+            MeterRegistry meterRegistry,
+            @Value("${chat.prompt.max-tokens:6000}") int maxTokens,
+            @Value("${chat.prompt.history-max-tokens:1500}") int historyMaxTokens,
+            @Value("${chat.prompt.message-overhead-tokens:4}") int messageOverheadTokens,
+            @Value("${chat.retrieval.top-k:6}") int topK) {
+        this.tokenEstimator = tokenEstimator;
+        this.compactor = compactor;
+        this.maxTokens = maxTokens;
+        this.historyMaxTokens = historyMaxTokens;
+        this.messageOverheadTokens = messageOverheadTokens;
+        this.topK = topK;
+        this.promptTokens = DistributionSummary.builder("chat.prompt.tokens")
+                .description("Estimated prompt size sent to the chat model")
+                .baseUnit("tokens")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.contextChunks = DistributionSummary.builder("chat.prompt.context.chunks")
+                .description("Retrieved knowledge chunks included in the prompt")
+                .register(meterRegistry);
+    }
+
+    /** A first-turn prompt, with no history. */
+    public Prompt build(CompiledPrompt compiled, String userMessage) {
+        return build(compiled, new ChatSession(null, compiled.slug(), "", List.of()), userMessage);
+    }
+
+    public Prompt build(CompiledPrompt compiled, ChatSession session, String userMessage) {
+        int used = tokenEstimator.estimate(compiled.preamble())
+                + tokenEstimator.estimate(compiled.guidelines())
+                + tokenEstimator.estimate(userMessage)
+                + 2 * messageOverheadTokens;
+
+        // Newest turns first, for as long as they fit
+        List<Message> history = session.messages();
+        int historyBudget = Math.min(historyMaxTokens, Math.max(0, maxTokens - used));
+        int keepFrom = history.size();
+        int historyTokens = 0;
+        while (keepFrom > 0) {
+            int cost = tokenEstimator.estimate(history.get(keepFrom - 1).getText()) + messageOverheadTokens;
+            if (historyTokens + cost > historyBudget) {
+                break;
+            }
+            historyTokens += cost;
+            keepFrom--;
+        }
+        // Never open the window on a reply whose question was cut
+        if (keepFrom < history.size() && history.get(keepFrom).getMessageType() == MessageType.ASSISTANT) {
+            historyTokens -= tokenEstimator.estimate(history.get(keepFrom).getText()) + messageOverheadTokens;
+            keepFrom++;
+        }
+
+        String summary = keepFrom > 0
+                ? compactor.fold(session.summary(), history.subList(0, keepFrom))
+                : session.summary();
+        String summarySection = summary == null || summary.isBlank() ? "" : SUMMARY_HEADING + summary + "\n";
+        used += historyTokens + tokenEstimator.estimate(summarySection);
+
+        String context = retrieveContext(compiled.knowledge(), retrievalQuery(userMessage, history), maxTokens - used);
+        promptTokens.record(used + tokenEstimator.estimate(context));
+
+        List<Message> messages = new ArrayList<>(history.size() - keepFrom + 2);
+        messages.add(new SystemMessage(compiled.systemPrompt(context) + summarySection));
+        messages.addAll(history.subList(keepFrom, history.size()));
+        messages.add(new UserMessage(userMessage));
+        return new Prompt(messages);
+    }
+
+    /** Best chunks first while they fit, then put back in document order so the CV still reads top to bottom. */
+    private String retrieveContext(Bm25Index knowledge, String query, int budget) {
+        int[] ranked = knowledge.search(query, topK);
+        if (ranked.length == 0) {
+            // Nothing matched (e.g. "hi"): the start of the CV is the best general introduction
+            ranked = IntStream.range(0, Math.min(topK, knowledge.size())).toArray();
+        }
+
+        List<Integer> selected = new ArrayList<>(ranked.length);
+        int remaining = budget;
+        for (int id : ranked) {
+            int cost = tokenEstimator.estimate(knowledge.chunk(id)) + 1;
+            if (cost <= remaining) {
+                selected.add(id);
+                remaining -= cost;
+            }
+        }
+        contextChunks.record(selected.size());
+        if (selected.isEmpty()) {
+            return ranked.length > 0 ? tokenEstimator.truncate(knowledge.chunk(ranked[0]), budget) : NO_CONTEXT;
+        }
+        return selected.stream()
+                .sorted()
+                .map(knowledge::chunk)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /** Follow-ups like "tell me more" only make sense together with the previous question. */
+    private static String retrievalQuery(String userMessage, List<Message> history) {
+        for (int i = history.size() - 1; i >= 0; i--) {
+            if (history.get(i).getMessageType() == MessageType.USER) {
+                return userMessage + "\n" + history.get(i).getText();
+            }
+        }
+        return userMessage;
+    }
+}
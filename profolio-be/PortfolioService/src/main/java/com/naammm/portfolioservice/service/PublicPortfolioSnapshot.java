@@ -0,0 +1,132 @@
+package com.naammm.portfolioservice.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * The rendered JSON of a public portfolio page with its pre-compressed variants.
+ * Every variant has its own strong ETag derived from the SHA-256 of the uncompressed
+ * bytes, so identical content always yields the same tags across rebuilds and restarts.
+ * The gzip and brotli variants are absent when compression would not pay off.
+ */
+public record PublicPortfolioSnapshot(String slug, Variant identity, Variant gzip, Variant brotli) {
+
+    public static final String IDENTITY = "identity";
+    public static final String GZIP = "gzip";
+    public static final String BROTLI = "br";
+
+    /** One content-coding of the snapshot, ready to be written as-is. */
+    public record Variant(String encoding, byte[] body, String etag) {
+
+        public boolean isCompressed() {
+            return !IDENTITY.equals(encoding);
+        }
+
+        @Override
+        public String toString() {
+            return encoding + "(" + body.length + " bytes)";
+        }
+    }
+
+    public static PublicPortfolioSnapshot of(String slug, byte[] body) {
+        return of(slug, body, null, null);
+    }
+
+    public static PublicPortfolioSnapshot of(String slug, byte[] body, byte[] gzipped, byte[] brotlied) {
+        String hash = sha256(body);
+        return new PublicPortfolioSnapshot(slug,
+                new Variant(IDENTITY, body, "\"" + hash + "\""),
+                gzipped == null ? null : new Variant(GZIP, gzipped, "\"" + hash + "-gzip\""),
+                brotlied == null ? null : new Variant(BROTLI, brotlied, "\"" + hash + "-br\""));
+    }
+
+    public String etag() {
+        return identity.etag();
+    }
+
+    public byte[] body() {
+        return identity.body();
+    }
+
+    /** Picks the smallest variant the client accepts: brotli, then gzip, then the plain bytes. */
+    public Variant select(String acceptEncoding) {
+        if (brotli != null && quality(acceptEncoding, BROTLI) > 0) {
+            return brotli;
+        }
+        if (gzip != null && quality(acceptEncoding, GZIP) > 0) {
+            return gzip;
+        }
+        return identity;
+    }
+
+    /**
+     * True if an If-None-Match header names any variant of this snapshot. Uses the weak
+     * comparison RFC 9110 requires for If-None-Match, and accepts lists and "*".
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            String expected = tag;
+            if (Stream.of(identity, gzip, brotli).anyMatch(v -> v != null && v.etag().equals(expected))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The q-value the Accept-Encoding header gives a coding; 0 when it is absent or refused. */
+    static double quality(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return 0;
+        }
+        double wildcard = 0;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals(coding)) {
+                return q;
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+            }
+        }
+        return wildcard;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PublicPortfolioSnapshot[slug=" + slug + ", etag=" + etag()
+                + ", variants=" + Stream.of(identity, gzip, brotli).filter(v -> v != null).toList() + "]";
+    }
+}
@@ -0,0 +1,98 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.naammm.portfolioservice.event.PortfolioCachesResetEvent;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import com.naammm.portfolioservice.exception.PortfolioNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-slug cache of the rendered public portfolio JSON and its gzip/brotli variants.
+ * Visitors are served the stored bytes; the page is only loaded, serialized and compressed
+ * again when an owner write commits, at which point the snapshot is rebuilt once so the
+ * next visitor does not pay for it.
+ * Hit/miss/eviction counters are published as the "portfolio.public-snapshots" cache metrics.
+ */
+@Component
+@Slf4j
+public class PublicPortfolioSnapshotCache {
+
+    private final PortfolioService portfolioService;
+    private final PortfolioIdResolver portfolioIdResolver;
+    private final ObjectMapper objectMapper;
+    private final SnapshotCompressor compressor;
+    private final Cache<String, PublicPortfolioSnapshot> cache;
+
+    public PublicPortfolioSnapshotCache(
+            PortfolioService portfolioService,
+            PortfolioIdResolver portfolioIdResolver,
+            ObjectMapper objectMapper,
+            SnapshotCompressor compressor,
+            MeterRegistry meterRegistry,
+            @Value("${portfolio.public-snapshots.maximum-size:10000}") long maximumSize) {
+        this.portfolioService = portfolioService;
+        this.portfolioIdResolver = portfolioIdResolver;
+        this.objectMapper = objectMapper;
+        this.compressor = compressor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "portfolio.public-snapshots");
+    }
+
+    /** Returns the snapshot for a slug, rendering it on first use. Unknown slugs are rejected from memory. */
+    public PublicPortfolioSnapshot get(String slug) {
+        if (portfolioIdResolver.bySlug(slug).isEmpty()) {
+            throw new PortfolioNotFoundException(slug);
+        }
+        return cache.get(slug, this::render);
+    }
+
+    /** The variant to send for an Accept-Encoding header, counted towards the bytes-saved metric. */
+    public PublicPortfolioSnapshot.Variant variantFor(PublicPortfolioSnapshot snapshot, String acceptEncoding) {
+        PublicPortfolioSnapshot.Variant variant = snapshot.select(acceptEncoding);
+        compressor.recordServed(snapshot, variant);
+        return variant;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (event.previousSlug() != null) {
+            cache.invalidate(event.previousSlug());
+        }
+        cache.invalidate(event.slug());
+        try {
+            cache.put(event.slug(), render(event.slug()));
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild public snapshot for {}, it will be rendered on next read: {}",
+                    event.slug(), e.getMessage());
+        }
+    }
+
+    /** Snapshots never expire by themselves; they are rendered again on next read. */
+    @EventListener
+    public void onCachesReset(PortfolioCachesResetEvent event) {
+        cache.invalidateAll();
+    }
+
+    private PublicPortfolioSnapshot render(String slug) {
+        try {
+            PublicPortfolioSnapshot snapshot = compressor.snapshot(slug,
+                    objectMapper.writeValueAsBytes(portfolioService.getPublicPortfolio(slug)));
+            log.debug("Rendered {}", snapshot);
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render public portfolio " + slug, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.event.PortfolioCachesResetEvent;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import com.naammm.portfolioservice.model.AIPersonality;
+import com.naammm.portfolioservice.model.Portfolio;
+import com.naammm.portfolioservice.model.Project;
+import com.naammm.portfolioservice.model.Skill;
+import com.naammm.portfolioservice.model.SkillCategory;
+import com.naammm.portfolioservice.model.ToolboxConfig;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps the Hibernate second-level cache correct across instances. Local writes update
+ * it through Hibernate itself, but an edit made on another instance never touches this
+ * node's regions, so they are evicted here when the invalidation bus reports one.
+ *
+ * Both listeners run before every other listener of the same event: the prompt, answer
+ * and snapshot caches are rebuilt from these entities, and one rebuilt in between would
+ * be compiled from stale data and kept until the next edit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheEvictor {
+
+    // Child rows are not keyed by portfolio; their regions are dropped whole, remote edits are rare
+    private static final List<Class<?>> CHILD_ENTITIES =
+            List.of(AIPersonality.class, ToolboxConfig.class, Project.class, SkillCategory.class, Skill.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (!event.remote()) {
+            return;
+        }
+        log.debug("Evicting second-level cache for portfolio {} changed on another instance", event.portfolioId());
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Portfolio.class, event.portfolioId());
+        CHILD_ENTITIES.forEach(cache::evictEntityData);
+        cache.evictCollectionData(SkillCategory.class.getName() + ".skills");
+        cache.evictQueryRegions();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onCachesReset(PortfolioCachesResetEvent event) {
+        log.debug("Evicting the whole second-level cache after the invalidation bus connected");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+}
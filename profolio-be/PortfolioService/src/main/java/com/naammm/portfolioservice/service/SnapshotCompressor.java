@@ -0,0 +1,104 @@
+package com.naammm.portfolioservice.service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses public snapshots once per edit at the highest levels, since the cost is
+ * paid by the owner's write rather than by visitors. Brotli needs the brotli4j native
+ * library; where it cannot be loaded (e.g. musl-based images) only gzip is produced.
+ *
+ * Publishes the achieved ratio per encoding ("portfolio.public-snapshots.compression.ratio")
+ * and the bytes not sent to visitors ("portfolio.public-snapshots.bytes.saved").
+ */
+@Component
+@Slf4j
+public class SnapshotCompressor {
+
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int brotliQuality;
+    private final boolean brotliAvailable;
+
+    public SnapshotCompressor(
+            MeterRegistry meterRegistry,
+            @Value("${portfolio.public-snapshots.compression.min-size:1024}") int minSize,
+            @Value("${portfolio.public-snapshots.compression.brotli-quality:11}") int brotliQuality) {
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.brotliQuality = brotliQuality;
+        this.brotliAvailable = loadBrotli();
+    }
+
+    /** Renders the snapshot with every variant that is actually smaller than the plain bytes. */
+    public PublicPortfolioSnapshot snapshot(String slug, byte[] body) {
+        return PublicPortfolioSnapshot.of(slug, body, keepIfSmaller(body, gzip(body), PublicPortfolioSnapshot.GZIP),
+                brotliAvailable ? keepIfSmaller(body, brotli(body), PublicPortfolioSnapshot.BROTLI) : null);
+    }
+
+    public void recordServed(PublicPortfolioSnapshot snapshot, PublicPortfolioSnapshot.Variant served) {
+        if (served.isCompressed()) {
+            Counter.builder("portfolio.public-snapshots.bytes.saved")
+                    .tag("encoding", served.encoding())
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .increment(snapshot.body().length - served.body().length);
+        }
+    }
+
+    private byte[] keepIfSmaller(byte[] body, byte[] compressed, String encoding) {
+        if (body.length < minSize || compressed == null || compressed.length >= body.length) {
+            return null;
+        }
+        DistributionSummary.builder("portfolio.public-snapshots.compression.ratio")
+                .tag("encoding", encoding)
+                .register(meterRegistry)
+                .record((double) body.length / compressed.length);
+        return compressed;
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] brotli(byte[] body) {
+        try {
+            return Encoder.compress(body, new Encoder.Parameters().setQuality(brotliQuality).setMode(Encoder.Mode.TEXT));
+        } catch (IOException e) {
+            log.warn("Brotli compression failed, serving gzip only for this snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            log.info("Brotli native library not available, public pages will be served with gzip only: {}", e.getMessage());
+            return false;
+        }
+    }
+}
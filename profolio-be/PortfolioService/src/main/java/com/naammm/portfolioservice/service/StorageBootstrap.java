@@ -0,0 +1,133 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.exception.StorageUnavailableException;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketPolicyArgs;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes sure the upload bucket exists (public-read) before any file is stored.
+ *
+ * This runs in the background after startup and is retried with exponential backoff
+ * until MinIO answers, so a slow or missing storage server does not hold up the rest of
+ * the service. Until then file operations fail fast with {@link StorageUnavailableException}.
+ */
+@Component
+@Slf4j
+public class StorageBootstrap {
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private volatile boolean ready;
+    private volatile int attempts;
+    private volatile String lastError;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "storage-bootstrap");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StorageBootstrap(
+            MinioClient minioClient,
+            @Value("${minio.bucketName}") String bucketName,
+            @Value("${minio.bootstrap.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${minio.bootstrap.max-backoff:1m}") Duration maxBackoff) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.execute(this::attempt);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void requireReady() {
+        if (!ready) {
+            throw new StorageUnavailableException("File storage is not available yet. Please try again shortly.");
+        }
+    }
+
+    public String bucketName() {
+        return bucketName;
+    }
+
+    public int attempts() {
+        return attempts;
+    }
+
+    public String lastError() {
+        return lastError;
+    }
+
+    void attempt() {
+        attempts++;
+        try {
+            initializeBucket();
+            ready = true;
+            lastError = null;
+            log.info("MinIO bucket {} ready after {} attempt(s)", bucketName, attempts);
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            Duration delay = backoff(attempts);
+            log.warn("MinIO bucket {} not ready (attempt {}): {}; retrying in {}s",
+                    bucketName, attempts, e.getMessage(), delay.toSeconds());
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::attempt, delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /** Doubles from the initial backoff up to the maximum. */
+    Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void initializeBucket() throws Exception {
+        boolean found = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+        if (!found) {
+            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+            String policy = """
+                    {
+                      "Version": "2012-10-17",
+                      "Statement": [
+                        {
+                          "Effect": "Allow",
+                          "Principal": "*",
+                          "Action": ["s3:GetObject"],
+                          "Resource": ["arn:aws:s3:::%s/*"]
+                        }
+                      ]
+                    }
+                    """.formatted(bucketName);
+            minioClient.setBucketPolicy(
+                    SetBucketPolicyArgs.builder().bucket(bucketName).config(policy).build());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
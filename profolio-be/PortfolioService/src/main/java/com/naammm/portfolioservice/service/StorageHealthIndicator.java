@@ -0,0 +1,35 @@
+package com.naammm.portfolioservice.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports object storage as "storage" in /actuator/health. The status stays UP while the
+ * bucket is still being set up, with {@code ready: false} and the last error as details:
+ * the instance serves everything but files meanwhile, so it must not be restarted or
+ * taken out of rotation for it.
+ */
+@Component
+public class StorageHealthIndicator implements HealthIndicator {
+
+    private final StorageBootstrap storage;
+
+    public StorageHealthIndicator(StorageBootstrap storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = Health.up()
+                .withDetail("bucket", storage.bucketName())
+                .withDetail("ready", storage.isReady());
+        if (!storage.isReady()) {
+            health.withDetail("attempts", storage.attempts());
+            if (storage.lastError() != null) {
+                health.withDetail("error", storage.lastError());
+            }
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.naammm.portfolioservice.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rows of stored_files: objects uploaded directly to storage, from the moment their
+ * presigned URL is issued (PENDING) until the upload is verified (STORED).
+ */
+@Component
+public class StoredFileStore {
+
+    public static final String PENDING = "PENDING";
+    public static final String STORED = "STORED";
+
+    public record StoredFile(String objectKey, UUID ownerId, String contentType, long maxSize, String status) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StoredFileStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createPending(String objectKey, UUID ownerId, String contentType, long maxSize) {
+        jdbcTemplate.update(
+                "INSERT INTO stored_files (object_key, owner_id, content_type, max_size, status, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                objectKey, ownerId, contentType, maxSize, PENDING, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public Optional<StoredFile> find(String objectKey) {
+        return jdbcTemplate.query("SELECT * FROM stored_files WHERE object_key = ?",
+                        (rs, rowNum) -> new StoredFile(
+                                rs.getString("object_key"),
+                                rs.getObject("owner_id", UUID.class),
+                                rs.getString("content_type"),
+                                rs.getLong("max_size"),
+                                rs.getString("status")),
+                        objectKey)
+                .stream()
+                .findFirst();
+    }
+
+    /** Returns false if the row was not pending any more (completed twice, or purged). */
+    public boolean markStored(String objectKey, long size) {
+        return jdbcTemplate.update(
+                "UPDATE stored_files SET status = ?, size = ?, completed_at = ? WHERE object_key = ? AND status = ?",
+                STORED, size, Timestamp.valueOf(LocalDateTime.now()), objectKey, PENDING) == 1;
+    }
+
+    public void delete(String objectKey) {
+        jdbcTemplate.update("DELETE FROM stored_files WHERE object_key = ?", objectKey);
+    }
+
+    /** Deletes the row only while it is still pending; returns whether it was deleted. */
+    public boolean deletePending(String objectKey) {
+        return jdbcTemplate.update("DELETE FROM stored_files WHERE object_key = ? AND status = ?", objectKey, PENDING) == 1;
+    }
+
+    public List<String> findPendingBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.queryForList(
+                "SELECT object_key FROM stored_files WHERE status = ? AND created_at < ?",
+                String.class, PENDING, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,139 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import com.naammm.portfolioservice.model.Portfolio;
+import com.naammm.portfolioservice.model.SuggestedQuestion;
+import com.naammm.portfolioservice.repository.PortfolioRepository;
+import com.naammm.portfolioservice.repository.SuggestedQuestionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that pre-generates the chat reply for every suggested question of a
+ * portfolio after its questions, personality or toolbox change, and persists it next to
+ * the question. ChatService serves those replies without calling the model.
+ *
+ * Bursts of edits are debounced into one run per portfolio; runs are sequential on a
+ * single thread. Replies are generated on the model's low-priority path (see
+ * {@link GuardedChatModel#callInBackground}): a run takes at most one bulkhead slot, only
+ * while no visitor is waiting for one, and its failures do not count toward opening the
+ * circuit. When the model is busy the rest of the run is retried after the debounce.
+ * Replies that are not a well-formed reply object are not stored.
+ */
+@Component
+@Slf4j
+public class SuggestedAnswerWarmer {
+
+    private final ChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final PortfolioRepository portfolioRepository;
+    private final SuggestedQuestionRepository questionRepository;
+    private final boolean enabled;
+    private final Duration debounce;
+
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "answer-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SuggestedAnswerWarmer(
+            ChatService chatService,
+            ObjectMapper objectMapper,
+            PortfolioRepository portfolioRepository,
+            SuggestedQuestionRepository questionRepository,
+            @Value("${chat.answer-warmup.enabled:true}") boolean enabled,
+            @Value("${chat.answer-warmup.debounce:30s}") Duration debounce) {
+        this.chatService = chatService;
+        this.objectMapper = objectMapper;
+        this.portfolioRepository = portfolioRepository;
+        this.questionRepository = questionRepository;
+        this.enabled = enabled;
+        this.debounce = debounce;
+    }
+
+    /** A stored reply is only valid for the exact context version and question text it was generated from. */
+    static String answerVersion(CompiledPrompt compiled, String question) {
+        return compiled.version() + "/" + Integer.toHexString(ChatAnswerCache.normalize(question).hashCode());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        if (!enabled || event.remote()) {
+            // The instance where the edit happened warms the answers; they are shared through the database
+            return;
+        }
+        schedule(event.portfolioId());
+    }
+
+    private void schedule(UUID portfolioId) {
+        if (dirty.add(portfolioId)) {
+            scheduler.schedule(() -> {
+                dirty.remove(portfolioId);
+                warm(portfolioId);
+            }, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void warm(UUID portfolioId) {
+        try {
+            Portfolio portfolio = portfolioRepository.findById(portfolioId).orElse(null);
+            if (portfolio == null) {
+                return;
+            }
+            CompiledPrompt compiled = chatService.compiledPrompt(portfolio.getSlug());
+            if (!compiled.chatEnabled()) {
+                return;
+            }
+
+            List<SuggestedQuestion> questions = questionRepository.findByPortfolioId(portfolioId);
+            int generated = 0;
+            for (SuggestedQuestion question : questions) {
+                String version = answerVersion(compiled, question.getQuestion());
+                if (version.equals(question.getAnswerVersion())) {
+                    continue;
+                }
+                try {
+                    Optional<String> answer = chatService.pregenerate(compiled, question.getQuestion());
+                    if (answer.isEmpty()) {
+                        log.debug("Model busy, retrying suggested answers for portfolio {} later", portfolioId);
+                        schedule(portfolioId);
+                        break;
+                    }
+                    if (!ChatStreamParser.parses(objectMapper, answer.get())) {
+                        log.warn("Discarding malformed pre-generated answer for question {}", question.getId());
+                        continue;
+                    }
+                    questionRepository.updateAnswer(question.getId(), answer.get(), version, LocalDateTime.now());
+                    generated++;
+                } catch (Exception e) {
+                    log.warn("Could not pre-generate answer for question {}: {}", question.getId(), e.getMessage());
+                }
+            }
+            log.debug("Pre-generated {} of {} suggested answers for portfolio {}", generated, questions.size(), portfolioId);
+        } catch (Exception e) {
+            log.error("Suggested answer warm-up failed for portfolio {}", portfolioId, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
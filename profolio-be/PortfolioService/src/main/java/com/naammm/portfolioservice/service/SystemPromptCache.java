@@ -0,0 +1,60 @@
+package com.naammm.portfolioservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.naammm.portfolioservice.event.PortfolioCachesResetEvent;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Per-slug cache of compiled system prompts.
+ * Entries are dropped as soon as an owner write commits; hit/miss/eviction counters
+ * are published as the "chat.system-prompt" cache metrics. For an edit made on another
+ * instance the entities are evicted from the second-level cache first (see
+ * {@link SecondLevelCacheEvictor}), so the prompt is never recompiled from stale rows.
+ */
+@Component
+@Slf4j
+public class SystemPromptCache {
+
+    private final Cache<String, CompiledPrompt> cache;
+
+    public SystemPromptCache(
+            MeterRegistry meterRegistry,
+            @Value("${chat.prompt-cache.maximum-size:1000}") long maximumSize,
+            @Value("${chat.prompt-cache.expire-after-access:6h}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.system-prompt");
+    }
+
+    public CompiledPrompt get(String slug, Function<String, CompiledPrompt> compiler) {
+        return cache.get(slug, compiler);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        log.debug("Evicting compiled prompt for portfolio {} ({})", event.portfolioId(), event.slug());
+        cache.invalidate(event.slug());
+        if (event.previousSlug() != null) {
+            cache.invalidate(event.previousSlug());
+        }
+    }
+
+    @EventListener
+    public void onCachesReset(PortfolioCachesResetEvent event) {
+        cache.invalidateAll();
+    }
+}
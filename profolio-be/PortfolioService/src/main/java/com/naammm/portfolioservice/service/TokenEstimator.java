@@ -0,0 +1,31 @@
+package com.naammm.portfolioservice.service;
+
+/**
+ * Estimates how many model tokens a piece of text costs. Used to keep chat prompts
+ * within budget; declare a {@code @Primary} bean to swap in a real tokenizer.
+ */
+public interface TokenEstimator {
+
+    int estimate(String text);
+
+    /** Returns the longest prefix of {@code text} that fits in {@code maxTokens}. */
+    default String truncate(String text, int maxTokens) {
+        if (text == null || maxTokens <= 0) {
+            return "";
+        }
+        if (estimate(text) <= maxTokens) {
+            return text;
+        }
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (estimate(text.substring(0, mid)) <= maxTokens) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return text.substring(0, low);
+    }
+}
@@ -8,14 +8,15 @@ import com.naammm.portfolioservice.repository.PortfolioRepository;
 import com.naammm.portfolioservice.repository.ProjectRepository;
 import com.naammm.portfolioservice.repository.SkillCategoryRepository;
 import com.naammm.portfolioservice.repository.ToolboxConfigRepository;
-import com.naammm.portfolioservice.repository.ProjectRepository;
-import com.naammm.portfolioservice.repository.SkillCategoryRepository;
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.IntStream;
 
@@ -27,14 +28,16 @@ public class ToolsService {
     private final ProjectRepository projectRepository;
     private final SkillCategoryRepository skillCategoryRepository;
     private final ToolboxConfigRepository toolboxConfigRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PortfolioIdResolver portfolioIdResolver;
 
     // ─── Toolbox Config ──────────────────────────────────────
 
     @Transactional
     public ToolboxConfigDto getToolboxConfig(String userId) {
-        Portfolio portfolio = portfolioRepository.findByUserId(UUID.fromString(userId))
+        Portfolio portfolio = findPortfolio(userId)
                 .orElseGet(() -> createDefaultPortfolioForUser(userId));
-        ToolboxConfig config = toolboxConfigRepository.findByPortfolio(portfolio)
+        ToolboxConfig config = toolboxConfigRepository.findByPortfolioId(portfolio.getId())
                 .orElseGet(() -> createEmptyToolboxConfig(portfolio));
         return mapToToolboxConfigDto(config);
     }
@@ -42,7 +45,7 @@ public class ToolsService {
     @Transactional
     public ToolboxConfigDto updateToolboxConfig(String userId, ToolboxConfigDto dto) {
         Portfolio portfolio = getPortfolioByUserId(userId);
-        ToolboxConfig config = toolboxConfigRepository.findByPortfolio(portfolio)
+        ToolboxConfig config = toolboxConfigRepository.findByPortfolioId(portfolio.getId())
                 .orElseGet(() -> createEmptyToolboxConfig(portfolio));
 
         if (dto.getIsGlobalEnabled() != null) config.setIsGlobalEnabled(dto.getIsGlobalEnabled());
@@ -98,7 +101,9 @@ public class ToolsService {
             config.setLocationCountry(dto.getLocationInfo().getCountry());
         }
 
-        return mapToToolboxConfigDto(toolboxConfigRepository.save(config));
+        ToolboxConfig saved = toolboxConfigRepository.save(config);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
+        return mapToToolboxConfigDto(saved);
     }
 
     private ToolboxConfig createEmptyToolboxConfig(Portfolio portfolio) {
@@ -111,8 +116,8 @@ public class ToolsService {
 
     @Transactional(readOnly = true)
     public List<ProjectDto> getProjects(String userId) {
-        return portfolioRepository.findByUserId(UUID.fromString(userId))
-                .map(p -> projectRepository.findByPortfolioOrderByDisplayOrderAsc(p)
+        return portfolioIdResolver.byUserId(UUID.fromString(userId))
+                .map(portfolioId -> projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolioId)
                         .stream().map(this::mapToProjectDto).toList())
                 .orElse(List.of());
     }
@@ -121,7 +126,7 @@ public class ToolsService {
     public ProjectDto createProject(String userId, ProjectDto dto) {
         Portfolio portfolio = getPortfolioByUserId(userId);
         
-        List<Project> existing = projectRepository.findByPortfolioOrderByDisplayOrderAsc(portfolio);
+        List<Project> existing = projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId());
         
         Project project = Project.builder()
                 .portfolio(portfolio)
@@ -134,7 +139,9 @@ public class ToolsService {
                 .displayOrder(existing.size())
                 .build();
         
-        return mapToProjectDto(projectRepository.save(project));
+        Project saved = projectRepository.save(project);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
+        return mapToProjectDto(saved);
     }
 
     @Transactional
@@ -152,7 +159,9 @@ public class ToolsService {
         if (dto.getLinks() != null) project.setLinks(dto.getLinks());
         if (dto.getDisplayOrder() != null) project.setDisplayOrder(dto.getDisplayOrder());
         
-        return mapToProjectDto(projectRepository.save(project));
+        Project saved = projectRepository.save(project);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(project.getPortfolio()));
+        return mapToProjectDto(saved);
     }
 
     @Transactional
@@ -162,14 +171,15 @@ public class ToolsService {
         
         verifyOwnership(project.getPortfolio(), userId);
         projectRepository.delete(project);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(project.getPortfolio()));
     }
 
     // ─── Skill Categories ────────────────────────────────────
 
     @Transactional(readOnly = true)
     public List<SkillCategoryDto> getSkillCategories(String userId) {
-        return portfolioRepository.findByUserId(UUID.fromString(userId))
-                .map(p -> skillCategoryRepository.findByPortfolioOrderByDisplayOrderAsc(p)
+        return portfolioIdResolver.byUserId(UUID.fromString(userId))
+                .map(portfolioId -> skillCategoryRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolioId)
                         .stream().map(this::mapToSkillCategoryDto).toList())
                 .orElse(List.of());
     }
@@ -178,7 +188,7 @@ public class ToolsService {
     public SkillCategoryDto createSkillCategory(String userId, SkillCategoryDto dto) {
         Portfolio portfolio = getPortfolioByUserId(userId);
         
-        List<SkillCategory> existing = skillCategoryRepository.findByPortfolioOrderByDisplayOrderAsc(portfolio);
+        List<SkillCategory> existing = skillCategoryRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId());
         
         SkillCategory category = SkillCategory.builder()
                 .portfolio(portfolio)
@@ -198,7 +208,9 @@ public class ToolsService {
             category.getSkills().addAll(skills);
         }
         
-        return mapToSkillCategoryDto(skillCategoryRepository.save(category));
+        SkillCategory saved = skillCategoryRepository.save(category);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(portfolio));
+        return mapToSkillCategoryDto(saved);
     }
 
     @Transactional
@@ -223,7 +235,9 @@ public class ToolsService {
             category.getSkills().addAll(newSkills);
         }
         
-        return mapToSkillCategoryDto(skillCategoryRepository.save(category));
+        SkillCategory saved = skillCategoryRepository.save(category);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(category.getPortfolio()));
+        return mapToSkillCategoryDto(saved);
     }
 
     @Transactional
@@ -233,18 +247,24 @@ public class ToolsService {
         
         verifyOwnership(category.getPortfolio(), userId);
         skillCategoryRepository.delete(category);
+        eventPublisher.publishEvent(PortfolioChangedEvent.of(category.getPortfolio()));
     }
 
     // ─── Helpers ─────────────────────────────────────────────
 
     private Portfolio getPortfolioByUserId(String userId) {
-        return portfolioRepository.findByUserId(UUID.fromString(userId))
+        return findPortfolio(userId)
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
     }
 
+    /** Owner lookups go through the id resolver, so the row itself comes from the entity cache. */
+    private Optional<Portfolio> findPortfolio(String userId) {
+        return portfolioIdResolver.byUserId(UUID.fromString(userId)).flatMap(portfolioRepository::findById);
+    }
+
     @Transactional
     private Portfolio createDefaultPortfolioForUser(String userId) {
-        return portfolioRepository.findByUserId(UUID.fromString(userId))
+        return findPortfolio(userId)
                 .orElseGet(() -> portfolioRepository.save(
                         Portfolio.builder()
                                 .userId(UUID.fromString(userId))
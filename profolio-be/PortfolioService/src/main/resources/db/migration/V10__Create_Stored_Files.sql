@@ -0,0 +1,14 @@
+-- Objects uploaded straight to storage with a presigned URL. A row is PENDING from the
+-- moment the URL is issued and becomes STORED once the upload has been verified.
+CREATE TABLE stored_files (
+    object_key VARCHAR(512) PRIMARY KEY,
+    owner_id UUID NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    max_size BIGINT NOT NULL,
+    size BIGINT,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_stored_files_status_created_at ON stored_files(status, created_at);
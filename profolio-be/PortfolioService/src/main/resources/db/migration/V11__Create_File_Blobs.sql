@@ -0,0 +1,14 @@
+-- Content-addressed uploads: one object per distinct SHA-256, shared by every upload of the
+-- same bytes. ref_count is the number of portfolio fields pointing at the object, refreshed
+-- by the orphan sweeper; unreferenced blobs are deleted after a grace period.
+CREATE TABLE file_blobs (
+    digest VARCHAR(64) PRIMARY KEY,
+    object_key VARCHAR(512) NOT NULL UNIQUE,
+    content_type VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_uploaded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_file_blobs_ref_count_last_uploaded_at ON file_blobs(ref_count, last_uploaded_at);
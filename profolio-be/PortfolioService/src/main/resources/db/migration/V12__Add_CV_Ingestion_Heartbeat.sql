@@ -0,0 +1,5 @@
+-- The instance holding a queued or running job refreshes heartbeat_at; only a job whose
+-- owner stopped refreshing it is reported as interrupted, however long it waits in the queue
+ALTER TABLE cv_ingestion_jobs ADD COLUMN heartbeat_at TIMESTAMP;
+
+UPDATE cv_ingestion_jobs SET heartbeat_at = updated_at;
@@ -0,0 +1,2 @@
+-- Optimistic lock for chat sessions: a turn is only written on top of the version it was computed from
+ALTER TABLE chat_sessions ADD COLUMN version BIGINT NOT NULL DEFAULT 1;
@@ -0,0 +1,5 @@
+-- Pre-generated chat replies for suggested questions
+ALTER TABLE suggested_questions
+ADD COLUMN answer_json TEXT,
+ADD COLUMN answer_version VARCHAR(255),
+ADD COLUMN answered_at TIMESTAMP;
@@ -0,0 +1,9 @@
+-- Server-side chat sessions (only used when chat.session.store=jdbc)
+CREATE TABLE chat_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    slug VARCHAR(100) NOT NULL,
+    messages TEXT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_chat_sessions_updated_at ON chat_sessions(updated_at);
@@ -0,0 +1,2 @@
+-- Rolling summary of turns that fell out of the session's message window
+ALTER TABLE chat_sessions ADD COLUMN summary TEXT;
@@ -0,0 +1,11 @@
+-- Asynchronous CV ingestion jobs; any instance can report the progress of any job
+CREATE TABLE cv_ingestion_jobs (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cv_ingestion_jobs_updated_at ON cv_ingestion_jobs(updated_at);
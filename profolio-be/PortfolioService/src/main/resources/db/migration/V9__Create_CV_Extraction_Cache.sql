@@ -0,0 +1,20 @@
+-- Results of AI CV extraction keyed by the SHA-256 of the extracted text, so re-uploading
+-- the same CV skips the model call
+CREATE TABLE cv_extractions (
+    text_hash VARCHAR(64) PRIMARY KEY,
+    prompt_version VARCHAR(64) NOT NULL,
+    cv_text TEXT NOT NULL,
+    extracted_data TEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_used_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Uploaded file bytes (SHA-256) -> extracted text, so an identical file also skips parsing
+CREATE TABLE cv_uploads (
+    file_hash VARCHAR(64) PRIMARY KEY,
+    text_hash VARCHAR(64) NOT NULL REFERENCES cv_extractions(text_hash) ON DELETE CASCADE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cv_uploads_text_hash ON cv_uploads(text_hash);
+CREATE INDEX idx_cv_extractions_last_used_at ON cv_extractions(last_used_at);
@@ -0,0 +1,52 @@
+package com.naammm.portfolioservice.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PublicPortfolioView
+ * Reads JSON in the shape the public view query aggregates and writes it back unchanged
+ */
+class PublicPortfolioViewTest {
+
+    private static final String JSON = """
+            {"portfolio":{"id":"7f1c2a9e-0d7b-4f5e-9a55-3b1f6f0c2d11","slug":"john","status":"PUBLISHED","theme":"DEFAULT",\
+            "avatarUrl":null,"avatarShape":"SQUARED","cursorAnimation":"FLUID","headline":"Hi","tagline":null,\
+            "chatPlaceholder":"Ask me anything...","showModal":true,"modalTitle":null,"modalContent":null},\
+            "personality":{"professionalBio":"Backend engineer","skills":null,"biggestFlex":null},\
+            "questions":[{"id":"0b8e1c52-65a4-4d7c-8f43-1e2f9a7d3c10","question":"Who are you?","category":"me","isDefault":true}],\
+            "projects":[],\
+            "skills":[{"id":"5d2a7c1e-3b9f-4e60-8a17-2c4d6e8f0a13","title":"Languages","skills":["Java","Go"],"displayOrder":0}],\
+            "tools":{"isGlobalEnabled":true,"isProjectsEnabled":false,"isSkillsEnabled":true,\
+            "meInfo":{"isEnabled":true,"name":"John","age":null,"location":null,"introduction":null,"tags":["runner"],"photoUrl":null},\
+            "hobbiesInfo":{"isEnabled":false,"title":null,"description":null,"photos":null},\
+            "contactInfo":{"isEnabled":true,"name":null,"email":"john@example.com","phone":null,"handle":null,"address":null,"socialPlatforms":null,"socialUrls":null},\
+            "resumeInfo":{"isEnabled":true,"title":null,"description":null,"fileUrl":null,"fileName":null},\
+            "videoInfo":{"isEnabled":false,"title":null,"url":null,"description":null},\
+            "locationInfo":{"isEnabled":true,"city":"Hanoi","country":"Vietnam"}}}""";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testReadsAggregatedJson() throws Exception {
+        PublicPortfolioView view = mapper.readValue(JSON, PublicPortfolioView.class);
+
+        assertEquals("john", view.portfolio().getSlug());
+        assertTrue(view.questions().get(0).getIsDefault());
+        assertEquals(java.util.List.of("Java", "Go"), view.skills().get(0).getSkills());
+        assertFalse(view.tools().getIsProjectsEnabled());
+        assertFalse(view.tools().getHobbiesInfo().getIsEnabled());
+        assertTrue(view.projects().isEmpty());
+    }
+
+    @Test
+    void testWritesTheSameJsonItReads() throws Exception {
+        PublicPortfolioView view = mapper.readValue(JSON, PublicPortfolioView.class);
+
+        JsonNode written = mapper.readTree(mapper.writeValueAsString(view));
+        assertEquals(mapper.readTree(JSON), written);
+    }
+}
@@ -0,0 +1,44 @@
+package com.naammm.portfolioservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Bm25Index
+ * Tests tokenization and ranking of portfolio chunks
+ */
+class Bm25IndexTest {
+
+    private static final List<String> CHUNKS = List.of(
+            "[CV] Senior backend engineer with eight years of Java and Spring Boot experience.",
+            "[Project] Profolio (Web), 2024\nAI portfolio builder.\nTech: React, Spring Boot, PostgreSQL",
+            "[Project] Tracker (Mobile), 2022\nFitness tracking app.\nTech: Kotlin, Firebase",
+            "[Skills] Languages: Java, Kotlin, TypeScript, C#");
+
+    @Test
+    void testTokenizeDropsStopWordsAndPlurals() {
+        assertEquals(List.of("project", "built", "c#"), Bm25Index.tokenize("What projects have you built with C#?"));
+    }
+
+    @Test
+    void testRanksMostSpecificChunkFirst() {
+        Bm25Index index = Bm25Index.build(CHUNKS);
+
+        int[] hits = index.search("Which mobile projects used Kotlin?", 2);
+
+        assertEquals(2, hits.length);
+        assertEquals(2, hits[0]);
+        assertEquals(3, hits[1]);
+    }
+
+    @Test
+    void testNoMatchReturnsNothing() {
+        Bm25Index index = Bm25Index.build(CHUNKS);
+
+        assertEquals(0, index.search("hi!", 3).length);
+        assertEquals(0, Bm25Index.empty().search("java", 3).length);
+    }
+}
@@ -0,0 +1,70 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CVService
+ * Tests text extraction limits on the in-process parser pool and in a forked parser JVM
+ */
+class CVServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CVService cvService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cvService = new CVService(meterRegistry, 1, 1, Duration.ofSeconds(10), 20,
+                false, DataSize.ofMegabytes(4), 1, "java", 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cvService.shutdown();
+    }
+
+    @Test
+    void testTextIsCutAtTheCharacterLimit() throws Exception {
+        byte[] content = "John Doe, Senior Software Engineer with ten years of Java".getBytes(StandardCharsets.UTF_8);
+
+        String text = cvService.extractText(content);
+
+        assertTrue(text.startsWith("John Doe"));
+        assertTrue(text.length() <= 20, "Extracted text should respect max-characters");
+        assertEquals(1.0, meterRegistry.get("cv.parse.truncated").counter().count());
+    }
+
+    @Test
+    void testEmptyFileIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> cvService.extractText(new byte[0]));
+    }
+
+    @Test
+    void testForkedParseIsCutAtTheCharacterLimit() throws Exception {
+        // Production forks every document; the child JVM is the one running this test
+        String java = ProcessHandle.current().info().command().orElse("java");
+        CVService forking = new CVService(meterRegistry, 1, 1, Duration.ofSeconds(60), 20,
+                true, DataSize.ofBytes(0), 1, java + " -Xmx128m", 4);
+        try {
+            byte[] content = "John Doe, Senior Software Engineer with ten years of Java".getBytes(StandardCharsets.UTF_8);
+
+            String text = forking.extractText(content);
+
+            assertTrue(text.startsWith("John Doe"));
+            assertTrue(text.length() <= 20, "The write limit must hold across the fork boundary");
+            assertEquals(1.0, meterRegistry.get("cv.parse.truncated").counter().count());
+            assertEquals(1, meterRegistry.get("cv.parse.duration").tag("mode", "fork").tag("outcome", "success").timer().count());
+        } finally {
+            forking.shutdown();
+        }
+    }
+}
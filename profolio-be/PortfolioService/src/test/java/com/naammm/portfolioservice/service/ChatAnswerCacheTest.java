@@ -0,0 +1,128 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatAnswerCache
+ * Tests question normalization, in-flight request coalescing and uncacheable replies
+ */
+class ChatAnswerCacheTest {
+
+    private static final CompiledPrompt PROMPT =
+            new CompiledPrompt(UUID.randomUUID(), "john", true, "system", Bm25Index.empty(), "rules", "1-1-1");
+
+    private ChatAnswerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChatAnswerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testNormalizedQuestionsShareAnEntry() {
+        cache.put(PROMPT, "What are your skills?", "reply");
+
+        assertEquals("reply", cache.getIfPresent(PROMPT, "  what ARE your   skills ").orElseThrow());
+    }
+
+    @Test
+    void testDifferentVersionMisses() {
+        cache.put(PROMPT, "What are your skills?", "reply");
+        CompiledPrompt edited = new CompiledPrompt(PROMPT.portfolioId(), "john", true, "system", Bm25Index.empty(), "rules", "2-1-1");
+
+        assertTrue(cache.getIfPresent(edited, "What are your skills?").isEmpty());
+    }
+
+    @Test
+    void testConcurrentIdenticalQuestionsCallLoaderOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> replies = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                replies.add(pool.submit(() -> cache.get(PROMPT, "Tell me about you", () -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "reply";
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<String> reply : replies) {
+                assertEquals("reply", reply.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get(), "Only one upstream call should be made");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(PROMPT, "hi", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        assertEquals("ok", cache.get(PROMPT, "hi", () -> "ok"));
+    }
+
+    @Test
+    void testStreamedReplyIsSharedWithIdenticalQuestions() throws Exception {
+        ChatAnswerCache.Pending owner = cache.begin(PROMPT, "Tell me about you");
+        ChatAnswerCache.Pending waiting = cache.begin(PROMPT, "tell me about you?");
+
+        assertTrue(owner.owner());
+        assertFalse(waiting.owner(), "An identical question must wait for the reply in flight");
+        assertFalse(waiting.reply().isDone());
+
+        owner.complete("streamed", true);
+
+        assertEquals("streamed", waiting.reply().get(1, TimeUnit.SECONDS));
+        assertEquals("streamed", cache.getIfPresent(PROMPT, "Tell me about you").orElseThrow());
+    }
+
+    @Test
+    void testUncacheableReplyReachesWaitersButIsNotKept() throws Exception {
+        ChatAnswerCache.Pending owner = cache.begin(PROMPT, "hi");
+        ChatAnswerCache.Pending waiting = cache.begin(PROMPT, "hi");
+
+        owner.complete("{\"lead\": \"cut off", false);
+
+        assertEquals("{\"lead\": \"cut off", waiting.reply().get(1, TimeUnit.SECONDS));
+        assertTrue(cache.getIfPresent(PROMPT, "hi").isEmpty());
+        assertEquals("ok", cache.get(PROMPT, "hi", () -> "ok", reply -> false));
+        assertEquals("again", cache.get(PROMPT, "hi", () -> "again"));
+    }
+
+    @Test
+    void testAbandonedStreamReleasesWaiters() {
+        ChatAnswerCache.Pending owner = cache.begin(PROMPT, "hi");
+        ChatAnswerCache.Pending waiting = cache.begin(PROMPT, "hi");
+
+        owner.fail(new IllegalStateException("visitor left"));
+
+        assertTrue(waiting.reply().isCompletedExceptionally());
+        assertTrue(cache.begin(PROMPT, "hi").owner(), "The next request must call the model again");
+    }
+}
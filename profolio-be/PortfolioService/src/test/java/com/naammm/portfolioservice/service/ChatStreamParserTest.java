@@ -0,0 +1,82 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.naammm.portfolioservice.dto.ChatStreamEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatStreamParser
+ * Feeds the reply JSON in small chunks, the way the model streams it
+ */
+class ChatStreamParserTest {
+
+    private static final String REPLY = """
+            ```json
+            {"type":"SKILLS","lead":"Here is my stack.","cards":[{"section_type":"SKILLS","title":"Languages","tags":["Java","Go"]},{"section_type":"SKILLS","title":"Frameworks","tags":["Spring"]}],"followUp":"Want to see a project?"}
+            ```""";
+
+    @Test
+    void testEmitsEachFieldAndCardWhenComplete() {
+        List<ChatStreamEvent> events = feedInChunks(REPLY, 7);
+
+        assertEquals(List.of("type", "lead", "card", "card", "followUp"),
+                events.stream().map(ChatStreamEvent::event).filter(e -> !e.equals(ChatStreamEvent.LEAD_DELTA)).toList());
+        assertEquals(Map.of("text", "Here is my stack."), events.stream()
+                .filter(e -> e.event().equals(ChatStreamEvent.LEAD)).findFirst().orElseThrow().data());
+
+        JsonNode firstCard = (JsonNode) events.stream()
+                .filter(e -> e.event().equals(ChatStreamEvent.CARD)).findFirst().orElseThrow().data();
+        assertEquals("Languages", firstCard.get("title").asText());
+        assertEquals(2, firstCard.get("tags").size());
+    }
+
+    @Test
+    void testStreamsLeadBeforeItIsComplete() {
+        String reply = "{\"type\":\"PROFILE\",\"lead\":\"I \\\"build\\\" caf\\u00e9 apps \\ud83d\\ude00\","
+                + "\"cards\":[{\"lead\":\"not the lead\"}],\"followUp\":\"More?\"}";
+        List<ChatStreamEvent> events = feedInChunks(reply, 3);
+
+        List<ChatStreamEvent> deltas = events.stream()
+                .filter(e -> e.event().equals(ChatStreamEvent.LEAD_DELTA)).toList();
+        assertTrue(deltas.size() > 1, "The lead should arrive in fragments");
+        assertEquals(ChatStreamEvent.LEAD_DELTA, events.get(1).event(), "The first fragment must not wait for the whole lead");
+        String streamed = deltas.stream()
+                .map(e -> ((Map<?, ?>) e.data()).get("text").toString())
+                .reduce("", String::concat);
+        assertEquals("I \"build\" caf\u00e9 apps \ud83d\ude00", streamed);
+        assertEquals(Map.of("text", streamed), events.stream()
+                .filter(e -> e.event().equals(ChatStreamEvent.LEAD)).findFirst().orElseThrow().data());
+    }
+
+    @Test
+    void testOnlyWholeRepliesParse() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertTrue(ChatStreamParser.parses(objectMapper, REPLY));
+        assertFalse(ChatStreamParser.parses(objectMapper, REPLY.substring(0, REPLY.indexOf("\"cards\""))));
+        assertFalse(ChatStreamParser.parses(objectMapper, "Sorry, I can't answer that."));
+    }
+
+    @Test
+    void testIgnoresNonJsonReply() {
+        List<ChatStreamEvent> events = feedInChunks("Sorry, I can't answer { that right now.", 5);
+
+        assertTrue(events.isEmpty(), "Malformed output should not produce events");
+    }
+
+    private List<ChatStreamEvent> feedInChunks(String text, int chunkSize) {
+        ChatStreamParser parser = new ChatStreamParser(new ObjectMapper());
+        List<ChatStreamEvent> events = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += chunkSize) {
+            events.addAll(parser.feed(text.substring(i, Math.min(text.length(), i + chunkSize))));
+        }
+        return events;
+    }
+}
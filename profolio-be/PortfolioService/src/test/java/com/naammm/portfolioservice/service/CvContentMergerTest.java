@@ -0,0 +1,101 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.dto.ai.CVExtractedData;
+import com.naammm.portfolioservice.model.Portfolio;
+import com.naammm.portfolioservice.model.Project;
+import com.naammm.portfolioservice.model.Skill;
+import com.naammm.portfolioservice.model.SkillCategory;
+import com.naammm.portfolioservice.repository.ProjectRepository;
+import com.naammm.portfolioservice.repository.SkillCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CvContentMerger
+ * Tests that extracted projects and skills are applied as a diff against the stored rows
+ */
+class CvContentMergerTest {
+
+    private Portfolio portfolio;
+    private ProjectRepository projectRepository;
+    private SkillCategoryRepository skillCategoryRepository;
+    private CvContentMerger merger;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setId(UUID.randomUUID());
+        projectRepository = mock(ProjectRepository.class);
+        skillCategoryRepository = mock(SkillCategoryRepository.class);
+        merger = new CvContentMerger(projectRepository, skillCategoryRepository);
+    }
+
+    @Test
+    void testProjectsAreMatchedByTitle() {
+        Project kept = project("Profolio", 0, List.of("https://github.com/john/profolio"));
+        Project dropped = project("Old thing", 1, List.of());
+        when(projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId()))
+                .thenReturn(List.of(kept, dropped));
+
+        CvContentMerger.Changes changes = merger.mergeProjects(portfolio, List.of(
+                new CVExtractedData.ProjectData("New API", "Backend", "REST API", "2024", List.of("Java")),
+                new CVExtractedData.ProjectData(" profolio ", "Web", "AI portfolio", "2025", List.of("React"))));
+
+        assertEquals(new CvContentMerger.Changes(1, 1, 1), changes);
+        assertEquals("AI portfolio", kept.getDescription());
+        assertEquals(1, kept.getDisplayOrder());
+        assertEquals(List.of("https://github.com/john/profolio"), kept.getLinks(), "Owner-added links must survive");
+        verify(projectRepository).saveAll(argThat((Iterable<Project> inserts) ->
+                inserts.iterator().next().getTitle().equals("New API")));
+        verify(projectRepository).deleteAll(List.of(dropped));
+    }
+
+    @Test
+    void testUnchangedProjectsAreNotCountedAsUpdates() {
+        Project same = project("Profolio", 0, List.of());
+        same.setCategory("Web");
+        same.setDescription("AI portfolio");
+        same.setDate("2025");
+        same.setTags(List.of("React"));
+        when(projectRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId())).thenReturn(List.of(same));
+
+        CvContentMerger.Changes changes = merger.mergeProjects(portfolio, List.of(
+                new CVExtractedData.ProjectData("Profolio", "Web", "AI portfolio", "2025", List.of("React"))));
+
+        assertEquals(new CvContentMerger.Changes(0, 0, 0), changes);
+    }
+
+    @Test
+    void testSkillsAreReconciledInsideACategory() {
+        SkillCategory backend = SkillCategory.builder().portfolio(portfolio).title("Backend").displayOrder(0).build();
+        backend.getSkills().addAll(new ArrayList<>(List.of(
+                Skill.builder().skillCategory(backend).name("Java").displayOrder(0).build(),
+                Skill.builder().skillCategory(backend).name("Perl").displayOrder(1).build())));
+        when(skillCategoryRepository.findByPortfolioIdOrderByDisplayOrderAsc(portfolio.getId()))
+                .thenReturn(List.of(backend));
+
+        CvContentMerger.Changes changes = merger.mergeSkills(portfolio, List.of(
+                new CVExtractedData.SkillCategoryData("backend", List.of("Java", "Go"))));
+
+        assertEquals(new CvContentMerger.Changes(0, 1, 0), changes);
+        assertEquals(List.of("Java", "Go"), backend.getSkills().stream().map(Skill::getName).toList());
+        assertEquals(1, backend.getSkills().get(1).getDisplayOrder());
+    }
+
+    private Project project(String title, int order, List<String> links) {
+        return Project.builder()
+                .id(UUID.randomUUID())
+                .portfolio(portfolio)
+                .title(title)
+                .links(links)
+                .displayOrder(order)
+                .build();
+    }
+}
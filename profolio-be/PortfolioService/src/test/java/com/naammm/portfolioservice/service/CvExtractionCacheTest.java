@@ -0,0 +1,32 @@
+package com.naammm.portfolioservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CvExtractionCache
+ * Tests the content hashes used as cache keys
+ */
+class CvExtractionCacheTest {
+
+    @Test
+    void testSha256IsHexEncoded() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                CvExtractionCache.sha256("abc".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testWhitespaceDoesNotChangeTextHash() {
+        assertEquals(CvExtractionCache.textHash("John Doe\nSenior Engineer\n"),
+                CvExtractionCache.textHash("  John Doe \r\n\tSenior   Engineer"));
+    }
+
+    @Test
+    void testDifferentTextChangesTextHash() {
+        assertNotEquals(CvExtractionCache.textHash("John Doe, Senior Engineer"),
+                CvExtractionCache.textHash("John Doe, Staff Engineer"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.naammm.portfolioservice.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileBlobStore
+ * Tests duplicate detection, reference counting of original and variant URLs and the
+ * grace period of the orphan delete, against the real schema
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FileBlobStoreTest {
+
+    private static final Duration GRACE_PERIOD = Duration.ofHours(24);
+    private static final String BASE_URL = "http://localhost:9000/files/";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private FileBlobStore store;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM file_blobs");
+        jdbcTemplate.update("DELETE FROM portfolios");
+        store = new FileBlobStore(jdbcTemplate);
+    }
+
+    @Test
+    void testDuplicateOnlyOnceStored() {
+        String digest = digest('a');
+
+        assertFalse(store.touch(digest), "Unknown content must be uploaded");
+        assertTrue(store.recordStored(digest, FileService.blobKey(digest), "image/png", 42));
+
+        assertTrue(store.touch(digest), "Stored content is a duplicate");
+        assertFalse(store.recordStored(digest, FileService.blobKey(digest), "image/png", 42),
+                "A concurrent upload of the same bytes must not fail");
+    }
+
+    @Test
+    void testRecountMatchesOriginalAndVariantUrls() {
+        String avatar = digest('a');
+        String hobby = digest('b');
+        String unused = digest('c');
+        for (String digest : new String[]{avatar, hobby, unused}) {
+            store.recordStored(digest, FileService.blobKey(digest), "image/jpeg", 42);
+        }
+
+        UUID portfolioId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO portfolios (id, user_id, slug, avatar_url) VALUES (?, ?, ?, ?)",
+                portfolioId, UUID.randomUUID(), "jane", BASE_URL + FileService.blobKey(avatar));
+        jdbcTemplate.update("INSERT INTO toolbox_config (portfolio_id, hobbies_photos) VALUES (?, ?::text[])",
+                portfolioId, "{" + BASE_URL + FileService.blobKey(hobby) + ".320w.webp}");
+
+        store.recountReferences();
+
+        assertEquals(1, refCount(avatar));
+        assertEquals(1, refCount(hobby));
+        assertEquals(0, refCount(unused));
+    }
+
+    @Test
+    void testDeleteIfOrphanKeepsBlobTouchedWithinGracePeriod() {
+        String touched = digest('a');
+        String abandoned = digest('b');
+        store.recordStored(touched, FileService.blobKey(touched), "image/png", 42);
+        store.recordStored(abandoned, FileService.blobKey(abandoned), "image/png", 42);
+        jdbcTemplate.update("UPDATE file_blobs SET last_uploaded_at = LOCALTIMESTAMP - INTERVAL '2 days'");
+
+        assertEquals(2, store.findOrphans(GRACE_PERIOD, 10).size());
+
+        // Uploaded again after the sweeper listed it as an orphan
+        store.touch(touched);
+
+        assertFalse(store.deleteIfOrphan(touched, GRACE_PERIOD));
+        assertTrue(store.deleteIfOrphan(abandoned, GRACE_PERIOD));
+        assertTrue(store.touch(touched), "The re-uploaded blob must still be registered");
+        assertFalse(store.touch(abandoned));
+    }
+
+    private int refCount(String digest) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM file_blobs WHERE digest = ?", Integer.class, digest);
+    }
+
+    private static String digest(char c) {
+        return String.valueOf(c).repeat(64);
+    }
+}
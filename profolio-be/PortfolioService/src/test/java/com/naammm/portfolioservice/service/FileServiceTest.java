@@ -0,0 +1,74 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.dto.UploadedFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FileService
+ * Tests that duplicate content is not uploaded again and that new content is only
+ * registered once its object is stored
+ */
+class FileServiceTest {
+
+    private MinioClient minioClient;
+    private FileBlobStore fileBlobStore;
+    private FileService service;
+
+    @BeforeEach
+    void setUp() {
+        minioClient = mock(MinioClient.class);
+        fileBlobStore = mock(FileBlobStore.class);
+        StorageBootstrap storage = mock(StorageBootstrap.class);
+        service = new FileService(minioClient, mock(MultipartUploader.class), mock(ImageDerivativeService.class),
+                fileBlobStore, new SimpleMeterRegistry(), storage, "http://localhost:9000", "files", "");
+    }
+
+    @Test
+    void testDuplicateIsNotUploadedAgain() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", "same bytes".getBytes());
+        String key = FileService.blobKey(FileService.sha256(file.getInputStream()));
+        when(fileBlobStore.touch(anyString())).thenReturn(true);
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of());
+
+        UploadedFile uploaded = service.storeFile(file);
+
+        assertEquals("http://localhost:9000/files/" + key, uploaded.url());
+        verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+        verify(fileBlobStore, never()).recordStored(anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void testNewContentIsRecordedAfterItsObjectIsStored() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", "new bytes".getBytes());
+        String digest = FileService.sha256(file.getInputStream());
+
+        service.storeFile(file);
+
+        InOrder inOrder = inOrder(fileBlobStore, minioClient);
+        inOrder.verify(fileBlobStore).touch(digest);
+        inOrder.verify(minioClient).putObject(any(PutObjectArgs.class));
+        inOrder.verify(fileBlobStore).recordStored(digest, FileService.blobKey(digest), "application/pdf", file.getSize());
+    }
+
+    @Test
+    void testFailedUploadIsNotRecorded() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", "lost bytes".getBytes());
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenThrow(new IllegalStateException("connection reset"));
+
+        assertThrows(RuntimeException.class, () -> service.storeFile(file));
+        verify(fileBlobStore, never()).recordStored(anyString(), anyString(), anyString(), anyLong());
+    }
+}
@@ -0,0 +1,128 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ImageDerivativeService
+ * Tests which widths are rendered and the size of the resulting images
+ */
+class ImageDerivativeServiceTest {
+
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageDerivativeService(new SimpleMeterRegistry(), List.of(1280, 320, 640), 0.8f, 0.8f,
+                1, 4, Duration.ofSeconds(20), 40_000_000L, DataSize.ofMegabytes(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testRendersOnlyWidthsNarrowerThanTheOriginal() throws IOException {
+        List<ImageDerivativeService.Derivative> derivatives = service.render(png(1000, 500));
+
+        List<Integer> jpegWidths = derivatives.stream()
+                .filter(d -> d.contentType().equals(ImageDerivativeService.JPEG))
+                .map(ImageDerivativeService.Derivative::width)
+                .toList();
+        assertEquals(List.of(320, 640), jpegWidths);
+
+        BufferedImage smallest = ImageIO.read(new ByteArrayInputStream(derivatives.stream()
+                .filter(d -> d.width() == 320 && d.contentType().equals(ImageDerivativeService.JPEG))
+                .findFirst().orElseThrow().body()));
+        assertEquals(320, smallest.getWidth());
+        assertEquals(160, smallest.getHeight());
+    }
+
+    @Test
+    void testSmallImageHasNoVariants() throws IOException {
+        assertTrue(service.render(png(200, 200)).isEmpty());
+    }
+
+    @Test
+    void testUndecodableBytesHaveNoVariants() {
+        assertTrue(service.render("not an image".getBytes()).isEmpty());
+    }
+
+    @Test
+    void testCameraJpegIsTurnedUprightBeforeResizing() throws IOException {
+        // Stored landscape, EXIF orientation 6: a portrait photo taken with the phone upright
+        byte[] photo = withOrientation(jpeg(1000, 500), 6);
+        assertEquals(6, ImageDerivativeService.exifOrientation(photo));
+
+        BufferedImage smallest = ImageIO.read(new ByteArrayInputStream(service.render(photo).stream()
+                .filter(d -> d.width() == 320 && d.contentType().equals(ImageDerivativeService.JPEG))
+                .findFirst().orElseThrow().body()));
+        assertEquals(320, smallest.getWidth());
+        assertEquals(640, smallest.getHeight());
+    }
+
+    @Test
+    void testOrientationMovesPixels() {
+        BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFF0000);
+
+        BufferedImage clockwise = ImageDerivativeService.orient(image, 6);
+        assertEquals(1, clockwise.getWidth());
+        assertEquals(2, clockwise.getHeight());
+        assertEquals(0xFF0000, clockwise.getRGB(0, 0) & 0xFFFFFF);
+
+        BufferedImage counterClockwise = ImageDerivativeService.orient(image, 8);
+        assertEquals(0xFF0000, counterClockwise.getRGB(0, 1) & 0xFFFFFF);
+        assertSame(image, ImageDerivativeService.orient(image, 1));
+    }
+
+    @Test
+    void testOnlyPhotosAreAccepted() {
+        assertTrue(service.accepts("image/jpeg", 1024));
+        assertFalse(service.accepts("application/pdf", 1024));
+        assertFalse(service.accepts("image/png", DataSize.ofMegabytes(21).toBytes()));
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    /** Inserts a minimal big-endian EXIF segment holding only the Orientation tag after SOI. */
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] tiff = {
+                'M', 'M', 0, 42, 0, 0, 0, 8,                    // header, IFD0 at offset 8
+                0, 1,                                           // one entry
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0                                      // no next IFD
+        };
+        int length = 2 + 6 + tiff.length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xE1, (byte) (length >> 8), (byte) length, 'E', 'x', 'i', 'f', 0, 0});
+        out.writeBytes(tiff);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
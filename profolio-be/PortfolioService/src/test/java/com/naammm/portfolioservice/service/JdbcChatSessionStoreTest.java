@@ -0,0 +1,73 @@
+package com.naammm.portfolioservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JdbcChatSessionStore
+ * Tests that concurrent turns of one session are both kept, against the real schema
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcChatSessionStoreTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private JdbcChatSessionStore store;
+    private final ChatHistoryCompactor compactor = new ChatHistoryCompactor(new CharacterRatioTokenEstimator(4.0), 300);
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM chat_sessions");
+        store = new JdbcChatSessionStore(jdbcTemplate, new ObjectMapper(), Duration.ofMinutes(30));
+    }
+
+    @Test
+    void testConcurrentTurnsAreBothKept() {
+        ChatSession started = ChatSession.start("john", List.of(), 20, compactor);
+        store.saveTurn(started, s -> s.withTurn("hi", "hello", 20, compactor));
+
+        // Two requests read the same state, then both save a turn
+        ChatSession first = store.find(started.id()).orElseThrow();
+        ChatSession second = store.find(started.id()).orElseThrow();
+        store.saveTurn(first, s -> s.withTurn("skills?", "Java", 20, compactor));
+        store.saveTurn(second, s -> s.withTurn("projects?", "Profolio", 20, compactor));
+
+        List<String> texts = store.find(started.id()).orElseThrow().messages().stream().map(Message::getText).toList();
+        assertEquals(List.of("hi", "hello", "skills?", "Java", "projects?", "Profolio"), texts);
+    }
+
+    @Test
+    void testTwoFirstTurnsOfANewSessionAreBothKept() {
+        ChatSession started = ChatSession.start("john", List.of(), 20, compactor);
+
+        store.saveTurn(started, s -> s.withTurn("hi", "hello", 20, compactor));
+        store.saveTurn(started, s -> s.withTurn("hey", "hello again", 20, compactor));
+
+        assertEquals(4, store.find(started.id()).orElseThrow().messages().size());
+        assertEquals(2L, store.find(started.id()).orElseThrow().version());
+    }
+}
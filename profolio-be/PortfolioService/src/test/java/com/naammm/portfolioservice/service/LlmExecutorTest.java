@@ -0,0 +1,120 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.exception.LlmCapacityException;
+import com.naammm.portfolioservice.exception.LlmTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LlmExecutor
+ * Tests bulkhead rejection and per-call timeouts, blocking and streaming, and that
+ * background calls only use idle capacity
+ */
+class LlmExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LlmExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new LlmExecutor(meterRegistry, 1, 0, Duration.ofMillis(100), Duration.ofMillis(300));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testRejectsWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = executor.async(() -> executor.call(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(LlmCapacityException.class, () -> executor.call(() -> "second"));
+        assertEquals(1.0, meterRegistry.get("llm.bulkhead.in.flight").gauge().value());
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("third", executor.call(() -> "third"));
+        assertEquals(1.0, meterRegistry.get("llm.bulkhead.rejected").tag("reason", "queue-full").counter().count());
+    }
+
+    @Test
+    void testSlowCallTimesOutAndFreesItsSlot() {
+        assertThrows(LlmTimeoutException.class, () -> executor.call(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }));
+
+        assertEquals("ok", executor.call(() -> "ok"));
+    }
+
+    @Test
+    void testStreamThatKeepsWritingStopsAtTheCallTimeout() {
+        // Every chunk arrives well within the timeout, the stream as a whole never ends
+        Flux<Long> endless = executor.stream(() -> Flux.interval(Duration.ofMillis(20)));
+
+        long start = System.nanoTime();
+        assertThrows(LlmTimeoutException.class, endless::blockLast);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+
+        assertEquals(1.0, meterRegistry.get("llm.calls.timeout").counter().count());
+        assertEquals(0.0, meterRegistry.get("llm.bulkhead.in.flight").gauge().value());
+        assertEquals("ok", executor.call(() -> "ok"));
+    }
+
+    @Test
+    void testStreamWithinTheCallTimeoutCompletes() {
+        assertEquals(List.of("a", "b"), executor.stream(() -> Flux.just("a", "b")).collectList().block());
+        assertEquals(0.0, meterRegistry.get("llm.bulkhead.in.flight").gauge().value());
+    }
+
+    @Test
+    void testBackgroundCallSkippedWhileSlotIsTaken() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> visitor = executor.async(() -> executor.call(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "visitor";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(executor.callIfIdle(() -> "warm-up").isEmpty(), "Background work must not wait for a slot");
+
+        release.countDown();
+        assertEquals("visitor", visitor.get(5, TimeUnit.SECONDS));
+        assertEquals("warm-up", executor.callIfIdle(() -> "warm-up").orElseThrow());
+        assertEquals(0.0, meterRegistry.get("llm.bulkhead.rejected").tag("reason", "queue-full").counter().count());
+    }
+}
@@ -0,0 +1,35 @@
+package com.naammm.portfolioservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OfflineChatResponder
+ * Tests keyword-based reply type selection
+ */
+class OfflineChatResponderTest {
+
+    @Test
+    void testSingleTopic() {
+        assertEquals(List.of("SKILLS"), OfflineChatResponder.intentsOf("What's your tech stack?"));
+        assertEquals(List.of("CONTACT"), OfflineChatResponder.intentsOf("How can I email you?"));
+    }
+
+    @Test
+    void testSeveralTopicsAreMixed() {
+        assertEquals(List.of("SKILLS", "PROJECTS"), OfflineChatResponder.intentsOf("Tell me about your skills and projects"));
+    }
+
+    @Test
+    void testMatchesWholeWordsOnly() {
+        assertEquals(List.of("SKILLS"), OfflineChatResponder.intentsOf("Which functional languages do you know?"));
+    }
+
+    @Test
+    void testUnknownQuestionFallsBackToProfile() {
+        assertEquals(List.of("PROFILE"), OfflineChatResponder.intentsOf("Hello!"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.event.PortfolioChangedEvent;
+import com.naammm.portfolioservice.repository.PortfolioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PortfolioIdResolver
+ * Tests negative caching of unknown slugs and slug updates on rename
+ */
+class PortfolioIdResolverTest {
+
+    private static final UUID PORTFOLIO_ID = UUID.randomUUID();
+
+    private PortfolioRepository repository;
+    private PortfolioIdResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PortfolioRepository.class);
+        resolver = new PortfolioIdResolver(repository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testUnknownSlugIsLookedUpOnce() {
+        when(repository.findIdBySlug("nobody")).thenReturn(Optional.empty());
+
+        assertTrue(resolver.bySlug("nobody").isEmpty());
+        assertTrue(resolver.bySlug("nobody").isEmpty());
+
+        verify(repository, times(1)).findIdBySlug("nobody");
+    }
+
+    @Test
+    void testRenameMovesTheRoute() {
+        when(repository.findIdBySlug("john")).thenReturn(Optional.of(PORTFOLIO_ID));
+        when(repository.findIdBySlug("johnny")).thenReturn(Optional.empty());
+        assertEquals(PORTFOLIO_ID, resolver.bySlug("john").orElseThrow());
+        assertTrue(resolver.bySlug("johnny").isEmpty());
+
+        when(repository.findIdBySlug("john")).thenReturn(Optional.empty());
+        resolver.onPortfolioChanged(new PortfolioChangedEvent(PORTFOLIO_ID, "johnny", "john", 1L, false));
+
+        assertEquals(PORTFOLIO_ID, resolver.bySlug("johnny").orElseThrow(), "The new slug must not stay negatively cached");
+        assertTrue(resolver.bySlug("john").isEmpty(), "The old slug must stop resolving");
+    }
+
+    @Test
+    void testUsersWithoutPortfolioAreNotRemembered() {
+        UUID userId = UUID.randomUUID();
+        when(repository.findIdByUserId(userId)).thenReturn(Optional.empty(), Optional.of(PORTFOLIO_ID));
+
+        assertTrue(resolver.byUserId(userId).isEmpty());
+        assertEquals(PORTFOLIO_ID, resolver.byUserId(userId).orElseThrow());
+        assertEquals(PORTFOLIO_ID, resolver.byUserId(userId).orElseThrow());
+
+        verify(repository, times(2)).findIdByUserId(userId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.naammm.portfolioservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PromptBudgeter
+ * Tests history windowing, summarization and context trimming under a small budget
+ */
+class PromptBudgeterTest {
+
+    private static final String CV = "Backend engineer. ".repeat(200);
+    private static final CompiledPrompt PROMPT = new CompiledPrompt(
+            UUID.randomUUID(), "john", true, "You are John. CV:\n",
+            Bm25Index.build(new KnowledgeChunker(800).chunkText("[CV] ", CV)), "Answer in JSON.", "1-1-1");
+
+    private final TokenEstimator estimator = new CharacterRatioTokenEstimator(4.0);
+    private SimpleMeterRegistry meterRegistry;
+    private ChatHistoryCompactor compactor;
+    private PromptBudgeter budgeter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        compactor = new ChatHistoryCompactor(estimator, 100);
+        budgeter = new PromptBudgeter(estimator, compactor, meterRegistry, 500, 120, 4, 6);
+    }
+
+    @Test
+    void testSmallConversationIsSentWhole() {
+        ChatSession session = new ChatSession("s", "john", "", List.of(
+                new UserMessage("Hi"), new AssistantMessage("{\"lead\":\"Hello!\"}")));
+
+        Prompt prompt = budgeter.build(PROMPT, session, "What do you do?");
+
+        assertEquals(4, prompt.getInstructions().size());
+        assertFalse(systemText(prompt).contains("SUMMARY"));
+    }
+
+    @Test
+    void testOlderTurnsAreSummarizedAndCvTrimmed() {
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            history.add(new UserMessage("Question number " + i + " about your experience with distributed systems?"));
+            history.add(new AssistantMessage("{\"type\":\"GENERAL\",\"lead\":\"Answer " + i + "\",\"cards\":[]}"));
+        }
+        ChatSession session = new ChatSession("s", "john", "", history);
+
+        Prompt prompt = budgeter.build(PROMPT, session, "And now?");
+        List<Message> messages = prompt.getInstructions();
+
+        assertTrue(messages.size() < history.size() + 2, "Older turns should be dropped from the window");
+        assertEquals(MessageType.USER, messages.get(1).getMessageType(), "Window must start on a question");
+        assertTrue(systemText(prompt).contains("EARLIER IN THIS CONVERSATION"));
+        assertTrue(systemText(prompt).contains("- I answered: Answer "));
+        assertTrue(systemText(prompt).length() < CV.length(), "Context should be trimmed to the budget");
+
+        int tokens = messages.stream().mapToInt(m -> estimator.estimate(m.getText())).sum();
+        assertTrue(tokens <= 500, "Prompt used " + tokens + " tokens");
+        assertEquals(1, meterRegistry.get("chat.prompt.tokens").summary().count());
+    }
+
+    @Test
+    void testSessionFoldsOverflowIntoSummary() {
+        ChatSession session = ChatSession.start("john", List.of(), 2, compactor)
+                .withTurn("First?", "{\"lead\":\"One.\"}", 2, compactor)
+                .withTurn("Second?", "{\"lead\":\"Two.\"}", 2, compactor);
+
+        assertEquals(2, session.messages().size());
+        assertEquals("- Visitor asked: First?\n- I answered: One.", session.summary());
+    }
+
+    private static String systemText(Prompt prompt) {
+        return prompt.getInstructions().get(0).getText();
+    }
+}
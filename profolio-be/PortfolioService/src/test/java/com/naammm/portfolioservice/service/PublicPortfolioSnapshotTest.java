@@ -0,0 +1,58 @@
+package com.naammm.portfolioservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PublicPortfolioSnapshot
+ * Tests content-hash ETags, If-None-Match matching and Accept-Encoding selection
+ */
+class PublicPortfolioSnapshotTest {
+
+    private static final byte[] BODY = "{\"portfolio\":{\"slug\":\"john\"}}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void testSameContentSameEtag() {
+        PublicPortfolioSnapshot first = PublicPortfolioSnapshot.of("john", BODY);
+        PublicPortfolioSnapshot second = PublicPortfolioSnapshot.of("john", BODY.clone());
+
+        assertEquals(first.etag(), second.etag());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""), "ETag must be a quoted strong tag");
+        assertNotEquals(first.etag(), PublicPortfolioSnapshot.of("john", "{}".getBytes(StandardCharsets.UTF_8)).etag());
+    }
+
+    @Test
+    void testIfNoneMatch() {
+        PublicPortfolioSnapshot snapshot = PublicPortfolioSnapshot.of("john", BODY);
+
+        assertTrue(snapshot.matches(snapshot.etag()));
+        assertTrue(snapshot.matches("\"stale\", " + snapshot.etag()));
+        assertTrue(snapshot.matches("W/" + snapshot.etag()));
+        assertTrue(snapshot.matches("*"));
+        assertFalse(snapshot.matches("\"stale\""));
+        assertFalse(snapshot.matches(null));
+    }
+
+    @Test
+    void testSelectsBestAcceptedEncoding() {
+        byte[] gzipped = SnapshotCompressor.gzip(BODY);
+        PublicPortfolioSnapshot snapshot = PublicPortfolioSnapshot.of("john", BODY, gzipped, new byte[]{1});
+
+        assertEquals(PublicPortfolioSnapshot.BROTLI, snapshot.select("gzip, deflate, br").encoding());
+        assertEquals(PublicPortfolioSnapshot.GZIP, snapshot.select("gzip, br;q=0").encoding());
+        assertEquals(PublicPortfolioSnapshot.GZIP, PublicPortfolioSnapshot.of("john", BODY, gzipped, null).select("br, gzip").encoding());
+        assertEquals(PublicPortfolioSnapshot.IDENTITY, snapshot.select(null).encoding());
+        assertEquals(PublicPortfolioSnapshot.IDENTITY, snapshot.select("identity").encoding());
+    }
+
+    @Test
+    void testEveryVariantHasItsOwnEtag() {
+        PublicPortfolioSnapshot snapshot = PublicPortfolioSnapshot.of("john", BODY, SnapshotCompressor.gzip(BODY), null);
+
+        assertNotEquals(snapshot.etag(), snapshot.gzip().etag());
+        assertTrue(snapshot.matches(snapshot.gzip().etag()), "A cached gzip copy is still current");
+    }
+}
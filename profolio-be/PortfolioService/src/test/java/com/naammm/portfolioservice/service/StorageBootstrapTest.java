@@ -0,0 +1,76 @@
+package com.naammm.portfolioservice.service;
+
+import com.naammm.portfolioservice.exception.StorageUnavailableException;
+import io.minio.BucketExistsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketPolicyArgs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StorageBootstrap
+ * Tests readiness gating, retry after a failed attempt and the backoff cap
+ */
+class StorageBootstrapTest {
+
+    private MinioClient minioClient;
+    private StorageBootstrap storage;
+
+    @BeforeEach
+    void setUp() {
+        minioClient = mock(MinioClient.class);
+        // Long backoffs: retries are driven by calling attempt() directly
+        storage = new StorageBootstrap(minioClient, "files", Duration.ofHours(1), Duration.ofHours(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.shutdown();
+    }
+
+    @Test
+    void testNotReadyUntilBucketIsReachable() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class)))
+                .thenThrow(new ConnectException("Connection refused"))
+                .thenReturn(false);
+
+        storage.attempt();
+
+        assertFalse(storage.isReady());
+        assertEquals("Connection refused", storage.lastError());
+        assertThrows(StorageUnavailableException.class, storage::requireReady);
+
+        storage.attempt();
+
+        assertTrue(storage.isReady());
+        assertDoesNotThrow(storage::requireReady);
+        verify(minioClient).makeBucket(any(MakeBucketArgs.class));
+        verify(minioClient).setBucketPolicy(any(SetBucketPolicyArgs.class));
+    }
+
+    @Test
+    void testExistingBucketIsLeftAlone() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+
+        storage.attempt();
+
+        assertTrue(storage.isReady());
+        verify(minioClient, never()).makeBucket(any(MakeBucketArgs.class));
+    }
+
+    @Test
+    void testBackoffDoublesUpToMaximum() {
+        assertEquals(Duration.ofHours(1), storage.backoff(1));
+        assertEquals(Duration.ofHours(2), storage.backoff(2));
+        assertEquals(Duration.ofHours(4), storage.backoff(3));
+        assertEquals(Duration.ofHours(4), storage.backoff(40));
+    }
+}
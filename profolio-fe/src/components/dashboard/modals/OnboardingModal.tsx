@@ -1,7 +1,30 @@
-import React, { useState, useRef } from 'react';
+import React, { useState, useRef, useEffect } from 'react';
 import { motion, AnimatePresence } from 'framer-motion';
 import apiClient from '../../../config/api';
 
+interface CvIngestionStatus {
+    jobId: string;
+    stage: 'QUEUED' | 'PARSING' | 'EXTRACTING' | 'PERSISTING' | 'COMPLETED' | 'FAILED';
+    progress: number;
+    done: boolean;
+    success: boolean;
+    message: string | null;
+}
+
+const STAGE_LABELS: Record<CvIngestionStatus['stage'], string> = {
+    QUEUED: 'Waiting in line...',
+    PARSING: 'Reading your CV...',
+    EXTRACTING: 'AI is analyzing...',
+    PERSISTING: 'Saving your profile...',
+    COMPLETED: 'Done!',
+    FAILED: 'Something went wrong',
+};
+
+const POLL_INTERVAL_MS = 1500;
+const MAX_WAIT_MS = 5 * 60_000;
+
+const wait = (ms: number) => new Promise((resolve) => setTimeout(resolve, ms));
+
 interface OnboardingModalProps {
     isOpen: boolean;
     onClose: () => void;
@@ -14,6 +37,8 @@ const OnboardingModal: React.FC<OnboardingModalProps> = ({ isOpen, onClose, onCo
     const [isLoading, setIsLoading] = useState(false);
     const [error, setError] = useState<string | null>(null);
     const fileInputRef = useRef<HTMLInputElement>(null);
+    const [stage, setStage] = useState<CvIngestionStatus['stage']>('QUEUED');
+    const cancelledRef = useRef(false);
 
     const handleFileChange = (e: React.ChangeEvent<HTMLInputElement>) => {
         if (e.target.files && e.target.files[0]) {
@@ -30,31 +55,55 @@ const OnboardingModal: React.FC<OnboardingModalProps> = ({ isOpen, onClose, onCo
         }
     };
 
+    useEffect(() => {
+        cancelledRef.current = false;
+        return () => {
+            cancelledRef.current = true;
+        };
+    }, []);
+
+    // Processing runs in the background on the server; poll the job until it is done
+    const waitForJob = async (jobId: string): Promise<CvIngestionStatus> => {
+        const startedAt = Date.now();
+        while (Date.now() - startedAt < MAX_WAIT_MS) {
+            const { data } = await apiClient.get<CvIngestionStatus>(`/v1/cv/jobs/${jobId}`);
+            if (cancelledRef.current || data.done) {
+                return data;
+            }
+            setStage(data.stage);
+            await wait(POLL_INTERVAL_MS);
+        }
+        throw new Error('Processing is taking longer than usual. Please wait a moment and refresh to check if your data was saved.');
+    };
+
     const handleUpload = async () => {
         if (!file) return;
 
         setIsLoading(true);
         setStep('processing');
+        setStage('QUEUED');
         setError(null);
 
         const formData = new FormData();
         formData.append('file', file);
 
         try {
-            await apiClient.post('/v1/cv/ingest', formData, {
+            const { data } = await apiClient.post<{ jobId: string }>('/v1/cv/ingest', formData, {
                 headers: {
                     'Content-Type': 'multipart/form-data',
                 },
-                timeout: 120_000, // AI processing can take 15-30s — override default 10s
             });
-            setStep('success');
-        } catch (err: any) {
-            // Timeout: backend may still be processing — show softer message
-            if (err.code === 'ECONNABORTED') {
-                setError('Processing is taking longer than usual. Please wait a moment and refresh to check if your data was saved.');
+            const status = await waitForJob(data.jobId);
+            if (cancelledRef.current) return;
+            if (status.success) {
+                setStep('success');
             } else {
-                setError(err.response?.data?.message || 'Failed to process CV. Please try again or fill manually.');
+                setError(status.message || 'Failed to process CV. Please try again or fill manually.');
+                setStep('upload');
             }
+        } catch (err: any) {
+            if (cancelledRef.current) return;
+            setError(err.response?.data?.message || err.message || 'Failed to process CV. Please try again or fill manually.');
             setStep('upload');
         } finally {
             setIsLoading(false);
@@ -182,7 +231,7 @@ const OnboardingModal: React.FC<OnboardingModalProps> = ({ isOpen, onClose, onCo
                                             </div>
                                         </div>
                                     </div>
-                                    <h2 className="text-2xl font-serif text-primary mb-3">AI is analyzing...</h2>
+                                    <h2 className="text-2xl font-serif text-primary mb-3">{STAGE_LABELS[stage]}</h2>
                                     <p className="text-text-muted max-w-sm mx-auto">
                                         We're extracting your professional experience, skills, and personality traits to build your digital twin.
                                     </p>
@@ -5,6 +5,7 @@ import apiClient from '../../config/api';
 import { portfolioApi } from '../../services/portfolioApi';
 import { ToolboxConfig, Project } from '../../types/portfolio';
 import SplashCursor from '../common/SplashCursor';
+import { streamChat } from '../../services/chatStream';
 
 interface Message {
   role: 'user' | 'assistant';
@@ -370,6 +371,7 @@ type ThemeKey = keyof typeof THEMES;
 const PortfolioPreview: React.FC<PortfolioPreviewProps> = ({ onBack }) => {
   const auth = useAuth();
   const [messages, setMessages] = useState<Message[]>([]);
+  const [chatSessionId, setChatSessionId] = useState<string | null>(null);
   const [inputValue, setInputValue] = useState('');
   const [isLoading, setIsLoading] = useState(false);
   const [inputFocused, setInputFocused] = useState(false);
@@ -428,13 +430,20 @@ const PortfolioPreview: React.FC<PortfolioPreviewProps> = ({ onBack }) => {
     setInputValue('');
     setIsLoading(true);
 
+    // The reply is shown as it streams in; the first update adds it, later ones replace it
+    let started = false;
+    const showReply = (content: string) => {
+      const append = !started;
+      started = true;
+      setIsLoading(false);
+      setMessages(prev => append
+        ? [...prev, { role: 'assistant', content }]
+        : [...prev.slice(0, -1), { role: 'assistant', content }]);
+    };
     try {
-      const history = messages.map(m => ({ role: m.role, content: m.content }));
-      const response = await apiClient.post(`/v1/public/chat/${portfolio.slug}`, { message: messageText, history });
-      const payload = response.data?.data ?? response.data;
-      setMessages(prev => [...prev, { role: 'assistant', content: payload.reply }]);
+      await streamChat(apiClient.defaults.baseURL ?? '', portfolio.slug, { message: messageText, sessionId: chatSessionId }, showReply, setChatSessionId);
     } catch (err) {
-      setMessages(prev => [...prev, { role: 'assistant', content: 'Sorry, I encountered an error. Please try again.' }]);
+      showReply('Sorry, I encountered an error. Please try again.');
     } finally {
       setIsLoading(false);
     }
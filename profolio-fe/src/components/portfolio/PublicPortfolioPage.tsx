@@ -4,6 +4,7 @@ import { useParams } from 'react-router-dom';
 import axios from 'axios';
 import { Project, ToolboxConfig } from '../../types/portfolio';
 import SplashCursor from '../common/SplashCursor';
+import { streamChat } from '../../services/chatStream';
 
 // ── Types ──────────────────────────────────────────────────────────────────────
 interface Message { role: 'user' | 'assistant'; content: string; }
@@ -269,6 +270,7 @@ const PublicPortfolioPage: React.FC = () => {
   const [loading, setLoading] = useState(true);
   const [notFound, setNotFound] = useState(false);
   const [messages, setMessages] = useState<Message[]>([]);
+  const [chatSessionId, setChatSessionId] = useState<string | null>(null);
   const [inputValue, setInputValue] = useState('');
   const [isLoading, setIsLoading] = useState(false);
   const [inputFocused, setInputFocused] = useState(false);
@@ -309,13 +311,20 @@ const PublicPortfolioPage: React.FC = () => {
     setMessages(prev => [...prev, { role: 'user', content: msg }]);
     setInputValue('');
     setIsLoading(true);
+    // The reply is shown as it streams in; the first update adds it, later ones replace it
+    let started = false;
+    const showReply = (content: string) => {
+      const append = !started;
+      started = true;
+      setIsLoading(false);
+      setMessages(prev => append
+        ? [...prev, { role: 'assistant', content }]
+        : [...prev.slice(0, -1), { role: 'assistant', content }]);
+    };
     try {
-      const history = messages.map(m => ({ role: m.role, content: m.content }));
-      const res = await axios.post(`${API_BASE}/v1/public/chat/${slug}`, { message: msg, history }, { timeout: 30000 });
-      const payload = res.data?.data ?? res.data;
-      setMessages(prev => [...prev, { role: 'assistant', content: payload.reply }]);
+      await streamChat(API_BASE, slug, { message: msg, sessionId: chatSessionId }, showReply, setChatSessionId);
     } catch {
-      setMessages(prev => [...prev, { role: 'assistant', content: 'Sorry, I encountered an error. Please try again.' }]);
+      showReply('Sorry, I encountered an error. Please try again.');
     } finally {
       setIsLoading(false);
     }
@@ -0,0 +1,95 @@
+// Client for the streaming chat endpoint (POST /v1/public/chat/{slug}/stream).
+// The reply is rebuilt from Server-Sent Events as they arrive and handed to onUpdate as a
+// JSON string in the same shape as a complete reply, so existing renderers can show it
+// while the model is still writing.
+
+interface PartialReply {
+  type?: string;
+  lead?: string;
+  cards?: unknown[];
+  followUp?: string;
+}
+
+export interface ChatStreamResult {
+  sessionId: string | null;
+  reply: string;
+}
+
+export async function streamChat(
+  baseUrl: string,
+  slug: string,
+  body: { message: string; sessionId: string | null },
+  onUpdate: (content: string) => void,
+  onSession?: (sessionId: string) => void,
+): Promise<ChatStreamResult> {
+  const response = await fetch(`${baseUrl}/v1/public/chat/${slug}/stream`, {
+    method: 'POST',
+    headers: { 'Content-Type': 'application/json', Accept: 'text/event-stream' },
+    body: JSON.stringify(body),
+  });
+  if (!response.ok || !response.body) {
+    throw new Error(`Chat request failed with status ${response.status}`);
+  }
+
+  const partial: PartialReply = {};
+  let sessionId: string | null = null;
+  let reply: string | null = null;
+
+  const handle = (event: string, data: any) => {
+    switch (event) {
+      case 'session':
+        sessionId = data.sessionId;
+        if (sessionId) onSession?.(sessionId);
+        return;
+      case 'type':
+        partial.type = data.text;
+        break;
+      case 'leadDelta':
+        partial.lead = (partial.lead ?? '') + data.text;
+        break;
+      case 'lead':
+        partial.lead = data.text;
+        break;
+      case 'card':
+        partial.cards = [...(partial.cards ?? []), data];
+        break;
+      case 'followUp':
+        partial.followUp = data.text;
+        break;
+      case 'done':
+        reply = data.reply;
+        onUpdate(data.reply);
+        return;
+      case 'error':
+        throw new Error(data.message);
+      default:
+        return;
+    }
+    onUpdate(JSON.stringify({ type: 'GENERAL', ...partial }));
+  };
+
+  const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = '';
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) break;
+    buffer += value;
+    let boundary;
+    while ((boundary = buffer.search(/\r?\n\r?\n/)) >= 0) {
+      const block = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary).replace(/^\r?\n\r?\n/, '');
+      let event = 'message';
+      const data: string[] = [];
+      for (const line of block.split(/\r?\n/)) {
+        if (line.startsWith('event:')) event = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+      }
+      if (data.length > 0) handle(event, JSON.parse(data.join('\n')));
+    }
+  }
+
+  if (reply === null) {
+    throw new Error('Chat stream ended before the reply was complete');
+  }
+  return { sessionId, reply };
+}
@@ -1,6 +1,24 @@
+import axios from 'axios';
 import apiClient from '../config/api';
 import type { Portfolio, AIPersonality, SuggestedQuestion, Project, SkillCategory, ToolboxConfig } from '../types/portfolio';
 
+export interface UploadedFile {
+    url: string;
+    filename: string;
+    // Resized copies of photos by content type, then by width ("320w" -> url)
+    variants: Record<string, Record<string, string>>;
+    // Ready-made srcset for <img>, empty when the file has no variants
+    srcset: string;
+}
+
+interface PresignedUpload {
+    objectKey: string;
+    uploadUrl: string;
+    method: string;
+    fields: Record<string, string>;
+    expiresAt: string;
+}
+
 export const portfolioApi = {
     getPortfolio: async (): Promise<Portfolio> => {
         const { data } = await apiClient.get('/v1/portfolio');
@@ -93,13 +111,24 @@ export const portfolioApi = {
     },
 
     // File Upload
-    uploadFile: async (file: File): Promise<{ url: string; filename: string }> => {
-        const formData = new FormData();
-        formData.append('file', file);
-        const { data } = await apiClient.post('/v1/files/upload', formData, {
-            headers: { 'Content-Type': 'multipart/form-data' },
-            timeout: 60_000, // file upload to MinIO can be slow — override default 10s
+    uploadFile: async (file: File): Promise<UploadedFile> => {
+        // The browser uploads straight to object storage with a presigned POST policy, then confirms
+        const { data: upload } = await apiClient.post<PresignedUpload>('/v1/files/presign', {
+            filename: file.name,
+            contentType: file.type || 'application/octet-stream',
+            size: file.size,
         });
-        return data;
+        // The policy pins key, type and maximum size; its fields must precede the file
+        const form = new FormData();
+        Object.entries(upload.fields).forEach(([name, value]) => form.append(name, value));
+        form.append('file', file);
+        await axios.request({
+            method: upload.method,
+            url: upload.uploadUrl,
+            data: form,
+            timeout: 120_000, // large files go directly to MinIO — no gateway in between
+        });
+        const { data } = await apiClient.post<UploadedFile>('/v1/files/presign/complete', { objectKey: upload.objectKey });
+        return { ...data, filename: file.name };
     },
 };